@@ -0,0 +1,129 @@
+package benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BenchmarkGate - Runs the framework benchmarks and compares them with a saved baseline.
+ * Exits with status 1 when a benchmark got slower than the baseline by more than the
+ * tolerance (and by more than its own measurement error). Without a baseline, or with
+ * -Dbenchmark.update=true, the results become the new baseline.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify                                   # run and compare
+ * mvn -Pbenchmark verify -Dbenchmark.include=WaitBenchmark # only some benchmarks
+ * mvn -Pbenchmark verify -Dbenchmark.update=true           # accept current numbers
+ * </pre>
+ */
+public final class BenchmarkGate {
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private BenchmarkGate() {}
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 && !args[0].isEmpty() ? args[0] : "benchmarks\\.";
+        Path baselineFile = Paths.get(System.getProperty("benchmark.baseline", "benchmarks/baseline.json"));
+        Path resultDir = Paths.get(System.getProperty("benchmark.results", "target/benchmarks"));
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.20"));
+        boolean update = Boolean.getBoolean("benchmark.update");
+
+        Files.createDirectories(resultDir);
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultDir.resolve("jmh-result.json").toString())
+                .build()).run();
+
+        Map<String, Score> current = new TreeMap<>();
+        for (RunResult run : results) {
+            Result<?> primary = run.getPrimaryResult();
+            current.put(key(run), new Score(primary.getScore(), primary.getScoreError(), primary.getScoreUnit(),
+                    run.getParams().getMode() != Mode.Throughput));
+        }
+        write(resultDir.resolve("scores.json"), current);
+
+        if (update || !Files.exists(baselineFile)) {
+            write(baselineFile, current);
+            System.out.println("Benchmark baseline written to " + baselineFile);
+            return;
+        }
+
+        Map<String, Score> baseline = gson.fromJson(
+                new String(Files.readAllBytes(baselineFile), StandardCharsets.UTF_8),
+                new TypeToken<TreeMap<String, Score>>() {}.getType());
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score base = baseline.get(entry.getKey());
+            Score now = entry.getValue();
+            if (base == null || !base.unit.equals(now.unit)) {
+                System.out.println("NEW   " + entry.getKey() + " " + now);
+                continue;
+            }
+            double change = (now.score - base.score) / base.score;
+            boolean slower = now.lowerIsBetter
+                    ? change > tolerance && now.score - now.error > base.score
+                    : -change > tolerance && now.score + now.error < base.score;
+            System.out.printf("%s %s %s (baseline %s, %+.1f%%)%n",
+                    slower ? "SLOWER" : "OK    ", entry.getKey(), now, base, change * 100);
+            if (slower) regressions.add(entry.getKey());
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " benchmark(s) regressed by more than "
+                    + Math.round(tolerance * 100) + "%: " + regressions);
+            System.exit(1);
+        }
+    }
+
+    private static String key(RunResult run) {
+        StringBuilder key = new StringBuilder(run.getParams().getBenchmark().replaceFirst("^benchmarks\\.", ""));
+        for (String name : run.getParams().getParamsKeys()) {
+            key.append(':').append(name).append('=').append(run.getParams().getParam(name));
+        }
+        return key.toString();
+    }
+
+    private static void write(Path file, Map<String, Score> scores) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.write(file, gson.toJson(scores).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Score {
+        private final double score;
+        private final double error;
+        private final String unit;
+        private final boolean lowerIsBetter;
+
+        private Score(double score, double error, String unit, boolean lowerIsBetter) {
+            this.score = score;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.unit = unit;
+            this.lowerIsBetter = lowerIsBetter;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", score, unit);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+import utils.ConfigReader;
+import utils.DriverManager;
+import utils.DriverProvider;
+import utils.ScreenshotUtil;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LookupBenchmark - Cost of the lookups done on every test or failure:
+ * ScreenshotUtil.getWebDriverFromInstance on each of its paths, and ConfigReader.get.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupBenchmark {
+    private final WebDriver driver = new StubWebDriver();
+    private final ITestResult providerResult = resultFor((DriverProvider) () -> driver);
+    private final ITestResult fieldResult = resultFor(new FieldTest(driver));
+
+    @Setup
+    public void clearThreadDriver() {
+        DriverManager.unload();
+    }
+
+    @TearDown
+    public void unload() {
+        DriverManager.unload();
+    }
+
+    @Benchmark
+    public WebDriver driverFromThread() {
+        DriverManager.setDriver(driver);
+        try {
+            return ScreenshotUtil.getWebDriverFromInstance(providerResult);
+        } finally {
+            DriverManager.unload();
+        }
+    }
+
+    @Benchmark
+    public WebDriver driverFromProvider() {
+        return ScreenshotUtil.getWebDriverFromInstance(providerResult);
+    }
+
+    @Benchmark
+    public WebDriver driverFromField() {
+        return ScreenshotUtil.getWebDriverFromInstance(fieldResult);
+    }
+
+    @Benchmark
+    public String configGet() {
+        return ConfigReader.get("app.url");
+    }
+
+    @Benchmark
+    public String configGetMissing() {
+        return ConfigReader.get("no.such.key");
+    }
+
+    // A test class that keeps its driver in a field, like tests not extending BaseTest
+    static class FieldTest {
+        protected WebDriver driver;
+
+        FieldTest(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+
+    private static ITestResult resultFor(Object instance) {
+        return (ITestResult) Proxy.newProxyInstance(LookupBenchmark.class.getClassLoader(),
+                new Class<?>[] {ITestResult.class},
+                (proxy, method, args) -> method.getName().equals("getInstance") ? instance : null);
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import pages.LoginPage;
+import pages.Pages;
+import pages.ProductsPage;
+import utils.WebDriverUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageConstructionBenchmark - Cost of building page objects.
+ * legacyConstruction builds a copy of LoginPage the way BasePage used to (new utils and
+ * wait per page, PageFactory.initElements); the others go through the metadata cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageConstructionBenchmark {
+    private final WebDriver driver = new StubWebDriver();
+
+    @Benchmark
+    public Object legacyConstruction() {
+        return new LegacyLoginPage(driver);
+    }
+
+    @Benchmark
+    public LoginPage cachedConstruction() {
+        return new LoginPage(driver);
+    }
+
+    @Benchmark
+    public ProductsPage factoryConstruction() {
+        return Pages.create(ProductsPage.class, driver);
+    }
+
+    // LoginPage as it was built before the metadata cache
+    static class LegacyLoginPage {
+        private final WebDriver driver;
+        private final WebDriverUtils utils;
+        private final WebDriverWait wait;
+        private By usernameField = By.id("user-name");
+        private By passwordField = By.id("password");
+        private By loginButton = By.id("login-button");
+        private By errorMessage = By.cssSelector("[data-test='error']");
+        private By errorContainer = By.cssSelector(".error-message-container");
+        private By logoImage = By.className("login_logo");
+
+        LegacyLoginPage(WebDriver driver) {
+            this.driver = driver;
+            this.utils = new WebDriverUtils(driver);
+            this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+            PageFactory.initElements(driver, this);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PageConstructionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ExtentReportManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportBenchmark - Cost of ExtentReportManager logging and flushing as the report grows.
+ * Each fork starts a report holding 'tests' finished tests of 10 log lines each.
+ * Logging is measured in batches of LOGS calls on a fresh test per iteration, so the
+ * test under measurement does not grow without bound.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class ReportBenchmark {
+    private static final int LOGS = 1_000;
+
+    @Param({"10", "100", "1000"})
+    public int tests;
+
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void fillReport() {
+        ExtentReportManager.initReport();
+        for (int i = 0; i < tests; i++) {
+            ExtentReportManager.startTest("test" + i, "benchmark filler");
+            for (int j = 0; j < 10; j++) {
+                ExtentReportManager.logInfo("step " + j + " of test " + i);
+            }
+            ExtentReportManager.logPass("Test passed: test" + i);
+            ExtentReportManager.endTest();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startTest() {
+        ExtentReportManager.startTest("measured" + iteration++, "");
+    }
+
+    @TearDown(Level.Iteration)
+    public void endTest() {
+        ExtentReportManager.endTest();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOGS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void logInfo() {
+        for (int i = 0; i < LOGS; i++) {
+            ExtentReportManager.logInfo("Navigated to URL: https://stub.local/");
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void flushReport() {
+        ExtentReportManager.flushReport();
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.Base64;
+
+/**
+ * StubWebElement - Visible, enabled element whose text and attributes are empty
+ */
+final class StubWebElement {
+    // 1x1 transparent PNG
+    static final byte[] PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+
+    private StubWebElement() {}
+
+    static WebElement create() {
+        return (WebElement) Proxy.newProxyInstance(StubWebElement.class.getClassLoader(),
+                new Class<?>[] {WebElement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isDisplayed":
+                        case "isEnabled":
+                            return true;
+                        case "isSelected":
+                            return false;
+                        case "getText":
+                        case "getAttribute":
+                        case "getTagName":
+                            return "";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubWebElement";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
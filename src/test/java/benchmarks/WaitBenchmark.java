@@ -0,0 +1,73 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.PageSnapshot;
+import utils.WebDriverUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WaitBenchmark - Framework cost of the WebDriverUtils wait paths when the element is
+ * already there, against a plain WebDriverWait. The stub driver answers every command
+ * at once, so the numbers are pure framework overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitBenchmark {
+    private static final By username = By.id("user-name");
+    private static final List<By> loginLocators = Arrays.asList(By.className("login_logo"), username,
+            By.id("password"), By.cssSelector("[data-test='error']"));
+
+    private final WebDriver driver = new StubWebDriver();
+    private final WebDriverUtils utils = WebDriverUtils.forDriver(driver);
+
+    @Benchmark
+    public WebElement webDriverWaitBaseline() {
+        return new WebDriverWait(driver, Duration.ofSeconds(10)).until(ExpectedConditions.visibilityOfElementLocated(username));
+    }
+
+    @Benchmark
+    public WebElement waitForElementToBeVisible() {
+        return utils.waitForElementToBeVisible(username);
+    }
+
+    @Benchmark
+    public WebElement waitForElementToBeClickable() {
+        return utils.waitForElementToBeClickable(username);
+    }
+
+    @Benchmark
+    public boolean isElementDisplayedNow() {
+        return utils.isElementDisplayedNow(username);
+    }
+
+    @Benchmark
+    public boolean isElementPresent() {
+        return utils.isElementPresent(username);
+    }
+
+    @Benchmark
+    public PageSnapshot snapshot() {
+        return utils.snapshot(loginLocators, "value");
+    }
+}
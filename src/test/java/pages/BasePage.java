@@ -1,7 +1,16 @@
 package pages;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.PageFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import utils.ActionBatch;
+import utils.DriverManager;
+import utils.FrameworkConfig;
+import utils.PageReadiness;
+import utils.PageSnapshot;
 import utils.WebDriverUtils;
 
 /**
@@ -11,10 +20,66 @@ public class BasePage {
     protected WebDriver driver;
     protected WebDriverUtils utils;
 
+    /**
+     * Create the page on the driver of the current test thread
+     */
+    public BasePage() {
+        this(DriverManager.getDriver());
+    }
+
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.utils = new WebDriverUtils(driver);
-        PageFactory.initElements(driver, this);
+        this.utils = WebDriverUtils.forDriver(driver);
+        // Pages with only By locators have nothing for PageFactory to initialise
+        if (PageMetadata.of(getClass()).needsPageFactory()) {
+            PageFactory.initElements(driver, this);
+        }
+    }
+
+    /**
+     * Elements that must be visible before this page counts as ready; none by default
+     */
+    protected List<By> readinessMarkers() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Wait until the page has settled: document loaded, no pending fetch/XHR or animation
+     * frames, quiet for readiness.idle.ms and the readiness markers visible.
+     * Returns false when it did not settle within readiness.timeout.ms.
+     */
+    public boolean waitUntilReady() {
+        return PageReadiness.await(driver, readinessMarkers());
+    }
+
+    /**
+     * Check if element is shown within the short probe timeout (wait.probe.timeout.ms).
+     * For "am I on this page" / "is this shown" checks, which must fail fast when the answer is no.
+     */
+    protected boolean isShown(By locator) {
+        return utils.isElementDisplayed(locator, FrameworkConfig.current().getProbeTimeout());
+    }
+
+    /**
+     * Start a batch of actions on this page
+     */
+    protected ActionBatch batch() {
+        return utils.batch();
+    }
+
+    /**
+     * Read title, URL and the state of the locators in one call.
+     * The "value" attribute of each locator is included.
+     */
+    protected PageSnapshot snapshot(By... locators) {
+        return utils.snapshot(Arrays.asList(locators), "value");
+    }
+
+    /**
+     * Read title, URL and the state of every By locator declared on this page in one call
+     */
+    public PageSnapshot snapshotAll() {
+        return utils.snapshot(PageMetadata.of(getClass()).locators(this), "value");
     }
 
     /**
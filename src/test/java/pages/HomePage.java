@@ -3,24 +3,36 @@ package pages;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * HomePage class - Page Object Model for Home Page
  */
 public class HomePage extends BasePage {
     // Locators
-    private By homePageHeading = By.xpath("//h1[contains(text(), 'Home')]");
-    private By searchBox = By.id("search");
-    private By searchButton = By.xpath("//button[@type='submit']");
+    private static final By homePageHeading = By.xpath("//h1[contains(text(), 'Home')]");
+    private static final By searchBox = By.id("search");
+    private static final By searchButton = By.xpath("//button[@type='submit']");
+
+    public HomePage() {
+        super();
+    }
 
     public HomePage(WebDriver driver) {
         super(driver);
     }
 
+    @Override
+    protected List<By> readinessMarkers() {
+        return Arrays.asList(searchBox);
+    }
+
     /**
      * Verify home page is loaded
      */
     public boolean isHomePageLoaded() {
-        return utils.isElementDisplayed(homePageHeading);
+        return isShown(homePageHeading);
     }
 
     /**
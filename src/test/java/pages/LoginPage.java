@@ -2,30 +2,44 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import utils.AppUrls;
+import utils.PageSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * LoginPage class - Page Object Model for Login Page
- * URL: https://www.saucedemo.com/
+ * URL: app.url (https://www.saucedemo.com/)
  */
 public class LoginPage extends BasePage {
     
     // Locators
-    private By usernameField = By.id("user-name");
-    private By passwordField = By.id("password");
-    private By loginButton = By.id("login-button");
-    private By errorMessage = By.cssSelector("[data-test='error']");
-    private By errorContainer = By.cssSelector(".error-message-container");
-    private By logoImage = By.className("login_logo");
+    private static final By usernameField = By.id("user-name");
+    private static final By passwordField = By.id("password");
+    private static final By loginButton = By.id("login-button");
+    private static final By errorMessage = By.cssSelector("[data-test='error']");
+    private static final By errorContainer = By.cssSelector(".error-message-container");
+    private static final By logoImage = By.className("login_logo");
+
+    public LoginPage() {
+        super();
+    }
 
     public LoginPage(WebDriver driver) {
         super(driver);
     }
 
+    @Override
+    protected List<By> readinessMarkers() {
+        return Arrays.asList(usernameField, passwordField, loginButton);
+    }
+
     /**
      * Verify login page is loaded
      */
     public boolean isLoginPageLoaded() {
-        return utils.isElementDisplayed(logoImage);
+        return isShown(logoImage);
     }
 
     /**
@@ -50,18 +64,20 @@ public class LoginPage extends BasePage {
     }
 
     /**
-     * Perform login with username and password
+     * Perform login with username and password (one batched round trip)
      */
     public void login(String username, String password) {
-        enterUsername(username);
-        enterPassword(password);
-        clickLoginButton();
+        batch().type(usernameField, username)
+                .type(passwordField, password)
+                .click(loginButton)
+                .perform();
     }
 
     /**
      * Get error message text
      */
     public String getErrorMessage() {
+        if (!isShown(errorMessage)) return "";
         try {
             return utils.getText(errorMessage);
         } catch (Exception e) {
@@ -73,7 +89,7 @@ public class LoginPage extends BasePage {
      * Verify error message is displayed
      */
     public boolean isErrorMessageDisplayed() {
-        return utils.isElementDisplayed(errorMessage);
+        return isShown(errorMessage);
     }
 
     /**
@@ -112,6 +128,48 @@ public class LoginPage extends BasePage {
         clearPassword();
     }
 
+    /**
+     * Capture the login page state (logo, fields, error, title, URL) in one call
+     */
+    public PageSnapshot snapshot() {
+        return snapshot(logoImage, usernameField, passwordField, errorMessage);
+    }
+
+    /**
+     * Verify login page is loaded, from a snapshot
+     */
+    public boolean isLoginPageLoaded(PageSnapshot snapshot) {
+        return snapshot.isDisplayed(logoImage);
+    }
+
+    /**
+     * Get error message text from a snapshot ("" when not shown)
+     */
+    public String getErrorMessage(PageSnapshot snapshot) {
+        return snapshot.getText(errorMessage);
+    }
+
+    /**
+     * Verify error message is displayed, from a snapshot
+     */
+    public boolean isErrorMessageDisplayed(PageSnapshot snapshot) {
+        return snapshot.isDisplayed(errorMessage);
+    }
+
+    /**
+     * Get username field value from a snapshot
+     */
+    public String getUsernameValue(PageSnapshot snapshot) {
+        return snapshot.getAttribute(usernameField, "value");
+    }
+
+    /**
+     * Verify login page URL, from a snapshot
+     */
+    public boolean isLoginPageURL(PageSnapshot snapshot) {
+        return snapshot.getUrl().startsWith(AppUrls.base());
+    }
+
     /**
      * Get login page title
      */
@@ -124,6 +182,6 @@ public class LoginPage extends BasePage {
      */
     public boolean isLoginPageURL() {
         String currentURL = getCurrentURL();
-        return currentURL.contains("saucedemo.com");
+        return currentURL.startsWith(AppUrls.base());
     }
 }
@@ -0,0 +1,144 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PageMetadata - What a page class declares, worked out once per class: its By locators
+ * (static locators are read once, instance ones through cached getters), whether any
+ * field needs PageFactory (@FindBy/@FindBys/@FindAll or a WebElement field) and its (WebDriver) constructor.
+ * Page construction then skips the reflective field scan.
+ */
+final class PageMetadata {
+    private static final ClassValue<PageMetadata> cache = new ClassValue<PageMetadata>() {
+        @Override
+        protected PageMetadata computeValue(Class<?> type) {
+            return new PageMetadata(type);
+        }
+    };
+
+    private final boolean needsPageFactory;
+    private final List<By> staticLocators;
+    private final List<MethodHandle> locatorGetters;
+    private final MethodHandle constructor;
+
+    private PageMetadata(Class<?> type) {
+        boolean annotated = false;
+        List<By> constants = new ArrayList<>();
+        List<MethodHandle> getters = new ArrayList<>();
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            MethodHandles.Lookup lookup;
+            try {
+                lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot inspect page class " + cls.getName(), e);
+            }
+            for (Field field : cls.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    if (By.class.isAssignableFrom(field.getType())) {
+                        try {
+                            By locator = (By) lookup.unreflectGetter(field).invoke();
+                            if (locator != null) constants.add(locator);
+                        } catch (Throwable e) {
+                            throw new IllegalStateException("Cannot read locator " + field, e);
+                        }
+                    }
+                    continue;
+                }
+                if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                        || field.isAnnotationPresent(FindAll.class) || isElementField(field)) {
+                    annotated = true;
+                }
+                if (By.class.isAssignableFrom(field.getType())) {
+                    try {
+                        getters.add(lookup.unreflectGetter(field).asType(MethodType.methodType(By.class, Object.class)));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Cannot read locator " + field, e);
+                    }
+                }
+            }
+        }
+        this.needsPageFactory = annotated;
+        this.staticLocators = Collections.unmodifiableList(constants);
+        this.locatorGetters = Collections.unmodifiableList(getters);
+        this.constructor = findConstructor(type);
+    }
+
+    // PageFactory also proxies unannotated WebElement / List<WebElement> fields, by field name
+    private static boolean isElementField(Field field) {
+        if (WebElement.class.isAssignableFrom(field.getType())) return true;
+        if (!List.class.isAssignableFrom(field.getType())) return false;
+        Type type = field.getGenericType();
+        return type instanceof ParameterizedType
+                && ((ParameterizedType) type).getActualTypeArguments()[0] == WebElement.class;
+    }
+
+    static PageMetadata of(Class<?> type) {
+        return cache.get(type);
+    }
+
+    /**
+     * Whether PageFactory.initElements has anything to do for this class
+     */
+    boolean needsPageFactory() {
+        return needsPageFactory;
+    }
+
+    /**
+     * Read the By locators declared on the page instance
+     */
+    List<By> locators(Object page) {
+        if (locatorGetters.isEmpty()) return staticLocators;
+        List<By> locators = new ArrayList<>(staticLocators);
+        for (MethodHandle getter : locatorGetters) {
+            try {
+                By locator = (By) getter.invokeExact(page);
+                if (locator != null) locators.add(locator);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read locator of " + page.getClass().getName(), e);
+            }
+        }
+        return locators;
+    }
+
+    /**
+     * Create a page instance through its (WebDriver) constructor
+     */
+    Object newInstance(WebDriver driver) {
+        if (constructor == null) {
+            throw new IllegalStateException("Page class has no public (WebDriver) constructor");
+        }
+        try {
+            return constructor.invoke(driver);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create page", e);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class, WebDriver.class))
+                    .asType(MethodType.methodType(Object.class, WebDriver.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
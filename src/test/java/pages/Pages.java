@@ -0,0 +1,25 @@
+package pages;
+
+import org.openqa.selenium.WebDriver;
+import utils.DriverManager;
+
+/**
+ * Pages - Page-object factory backed by the per-class PageMetadata cache
+ */
+public final class Pages {
+    private Pages() {}
+
+    /**
+     * Create a page on the driver of the current test thread
+     */
+    public static <T extends BasePage> T create(Class<T> type) {
+        return create(type, DriverManager.getDriver());
+    }
+
+    /**
+     * Create a page on the given driver
+     */
+    public static <T extends BasePage> T create(Class<T> type, WebDriver driver) {
+        return type.cast(PageMetadata.of(type).newInstance(driver));
+    }
+}
@@ -2,6 +2,10 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import utils.PageSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * ProductsPage class - Page Object Model for Products Page
@@ -10,21 +14,30 @@ import org.openqa.selenium.WebDriver;
 public class ProductsPage extends BasePage {
     
     // Locators
-    private By productTitle = By.cssSelector(".title");
-    private By menuButton = By.id("react-burger-menu-btn");
-    private By logoutLink = By.id("logout_sidebar_link");
-    private By productList = By.className("inventory_item");
-    private By cartBadge = By.className("shopping_cart_badge");
+    private static final By productTitle = By.cssSelector(".title");
+    private static final By menuButton = By.id("react-burger-menu-btn");
+    private static final By logoutLink = By.id("logout_sidebar_link");
+    private static final By productList = By.className("inventory_item");
+    private static final By cartBadge = By.className("shopping_cart_badge");
+
+    public ProductsPage() {
+        super();
+    }
 
     public ProductsPage(WebDriver driver) {
         super(driver);
     }
 
+    @Override
+    protected List<By> readinessMarkers() {
+        return Arrays.asList(productTitle, productList);
+    }
+
     /**
      * Verify products page is loaded
      */
     public boolean isProductsPageLoaded() {
-        return utils.isElementDisplayed(productTitle);
+        return isShown(productTitle);
     }
 
     /**
@@ -38,7 +51,7 @@ public class ProductsPage extends BasePage {
      * Verify products are displayed
      */
     public boolean areProductsDisplayed() {
-        return utils.isElementDisplayed(productList);
+        return isShown(productList);
     }
 
     /**
@@ -48,6 +61,27 @@ public class ProductsPage extends BasePage {
         return getCurrentURL();
     }
 
+    /**
+     * Capture the products page state (title, product list, cart badge, URL) in one call
+     */
+    public PageSnapshot snapshot() {
+        return snapshot(productTitle, productList, cartBadge);
+    }
+
+    /**
+     * Verify user is on inventory page, from a snapshot
+     */
+    public boolean isUserLoggedInSuccessfully(PageSnapshot snapshot) {
+        return snapshot.isDisplayed(productTitle) && snapshot.getUrl().contains("inventory");
+    }
+
+    /**
+     * Verify products are displayed, from a snapshot
+     */
+    public boolean areProductsDisplayed(PageSnapshot snapshot) {
+        return snapshot.isDisplayed(productList);
+    }
+
     /**
      * Verify user is on inventory page after successful login
      */
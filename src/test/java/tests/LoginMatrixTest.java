@@ -0,0 +1,45 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import pages.LoginPage;
+import pages.ProductsPage;
+import utils.BaseTest;
+import utils.ConfigReader;
+import utils.TestData;
+
+import java.util.Iterator;
+
+/**
+ * LoginMatrixTest class - Data-driven login cases, one per row of login.matrix.file in test.data.path
+ * Columns: case, username, password, expected (success or error), error (expected error text)
+ * Rows run in parallel on pooled browsers (data-provider-thread-count in testng.xml)
+ */
+public class LoginMatrixTest extends BaseTest {
+
+    @DataProvider(name = "loginMatrix", parallel = true)
+    public Iterator<Object[]> loginMatrix() {
+        return TestData.rows(ConfigReader.get("login.matrix.file"), "case", "username", "password", "expected", "error");
+    }
+
+    @Test(dataProvider = "loginMatrix", description = "Verify the login outcome of each login matrix row")
+    public void testLoginMatrix(String caseName, String username, String password, String expected, String error) {
+        LoginPage loginPage = new LoginPage(getDriver());
+        navigateToURL(getBaseUrl(), loginPage);
+
+        loginPage.login(username, password);
+
+        if ("success".equalsIgnoreCase(expected)) {
+            ProductsPage productsPage = new ProductsPage(getDriver());
+            productsPage.waitUntilReady();
+            Assert.assertTrue(productsPage.isUserLoggedInSuccessfully(),
+                    caseName + ": user is not logged in successfully");
+        } else {
+            Assert.assertTrue(loginPage.isErrorMessageDisplayed(),
+                    caseName + ": error message is not displayed");
+            Assert.assertTrue(loginPage.getErrorMessage().contains(error),
+                    caseName + ": expected error '" + error + "' but was '" + loginPage.getErrorMessage() + "'");
+        }
+    }
+}
@@ -13,30 +13,32 @@ public class SampleTest extends BaseTest {
     @Test(description = "Verify user can navigate to home page")
     public void testNavigateToHomePage() {
         // Navigate to the application
-        navigateToURL("https://www.google.com");
+        navigateToURL(getUrl("search"));
 
         // Verify page title
-        String title = driver.getTitle();
+        String title = getDriver().getTitle();
         Assert.assertTrue(title.contains("Google"), "Page title does not match");
     }
 
     @Test(description = "Verify page URL is correct")
     public void testPageURL() {
         // Navigate to the application
-        navigateToURL("https://www.google.com");
+        navigateToURL(getUrl("search"));
 
-        // Get current URL
-        String currentURL = driver.getCurrentUrl();
-        Assert.assertTrue(currentURL.contains("google"), "URL does not contain expected text");
+        // Verify the browser is on the resolved search URL (live site or its fixture copy)
+        String expectedURL = getUrl("search");
+        String currentURL = getDriver().getCurrentUrl();
+        Assert.assertTrue(currentURL.startsWith(expectedURL),
+                "URL " + currentURL + " is not on the search page " + expectedURL);
     }
 
     @Test(description = "Verify page is loaded successfully")
     public void testPageLoadSuccess() {
         // Navigate to the application
-        navigateToURL("https://www.google.com");
+        navigateToURL(getUrl("search"));
 
         // Verify page title is not empty
-        String title = driver.getTitle();
+        String title = getDriver().getTitle();
         Assert.assertFalse(title.isEmpty(), "Page title is empty");
     }
 }
@@ -0,0 +1,121 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import utils.TestData;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * TestDataTest class - Checks the CSV and JSON parsing of TestData on temporary files (no browser)
+ */
+public class TestDataTest {
+
+    private static String file(String suffix, String content) throws IOException {
+        Path path = Files.createTempFile("testdata", suffix);
+        path.toFile().deleteOnExit();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path.toAbsolutePath().toString();
+    }
+
+    private static List<Object[]> all(Iterator<Object[]> rows) {
+        List<Object[]> list = new ArrayList<>();
+        rows.forEachRemaining(list::add);
+        return list;
+    }
+
+    @Test(description = "Verify CSV quoted fields keep commas, quotes and spaces while unquoted fields are trimmed")
+    public void testCsvQuotedFields() throws IOException {
+        String csv = file(".csv", "a,b,c\n"
+                + "  plain  , \"with, comma\" ,\"say \"\"hi\"\"\"\n"
+                + "x,\" padded \",\"\"\n");
+
+        List<Object[]> rows = all(TestData.rows(csv, "a", "b", "c"));
+
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(0), new Object[] {"plain", "with, comma", "say \"hi\""});
+        Assert.assertEquals(rows.get(1), new Object[] {"x", " padded ", ""});
+    }
+
+    @Test(description = "Verify CSV comments are only read above the header and blank lines are skipped")
+    public void testCsvCommentsAndBlankLines() throws IOException {
+        String csv = file(".csv", "# about this file\n"
+                + "user,password\n"
+                + "\n"
+                + "#admin,secret\n"
+                + "   \n"
+                + "guest,\n");
+
+        List<Object[]> rows = all(TestData.rows(csv, "user", "password"));
+
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(0), new Object[] {"#admin", "secret"});
+        Assert.assertEquals(rows.get(1), new Object[] {"guest", ""});
+    }
+
+    @Test(description = "Verify CSV columns are picked by header name and missing trailing fields are empty")
+    public void testCsvColumnOrderAndMissingFields() throws IOException {
+        String csv = file(".csv", "a,b,c\n1,2\n");
+
+        List<Object[]> rows = all(TestData.rows(csv, "c", "a"));
+
+        Assert.assertEquals(rows.size(), 1);
+        Assert.assertEquals(rows.get(0), new Object[] {"", "1"});
+    }
+
+    @Test(description = "Verify a CSV header without a requested column is rejected",
+            expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*no column missing.*")
+    public void testCsvMissingColumn() throws IOException {
+        TestData.rows(file(".csv", "a,b\n1,2\n"), "a", "missing").hasNext();
+    }
+
+    @Test(description = "Verify an unterminated CSV quote is rejected with its line number",
+            expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*:3: unterminated quote")
+    public void testCsvUnterminatedQuote() throws IOException {
+        Iterator<Object[]> rows = TestData.rows(file(".csv", "a\nok\n\"open\n"), "a");
+        Assert.assertEquals(rows.next(), new Object[] {"ok"});
+        rows.next();
+    }
+
+    @Test(description = "Verify JSON rows convert scalars to strings, default missing fields and skip unknown ones")
+    public void testJsonRows() throws IOException {
+        String json = file(".json", "[\n"
+                + "  {\"name\": \" spaced \", \"count\": 3, \"flag\": true, \"extra\": {\"nested\": [1, 2]}},\n"
+                + "  {\"count\": null}\n"
+                + "]");
+
+        List<Object[]> rows = all(TestData.rows(json, "name", "count", "flag"));
+
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(0), new Object[] {" spaced ", "3", "true"});
+        Assert.assertEquals(rows.get(1), new Object[] {"", "", ""});
+    }
+
+    @Test(description = "Verify a JSON object or array in a requested column is rejected",
+            expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*name must be a string.*")
+    public void testJsonNonScalarValue() throws IOException {
+        TestData.rows(file(".json", "[{\"name\": [\"a\"]}]"), "name").hasNext();
+    }
+
+    @Test(description = "Verify iterating past the last row throws NoSuchElementException",
+            expectedExceptions = NoSuchElementException.class)
+    public void testNextAfterLastRow() throws IOException {
+        Iterator<Object[]> rows = TestData.rows(file(".csv", "a\n1\n"), "a");
+        rows.next();
+        Assert.assertFalse(rows.hasNext());
+        rows.next();
+    }
+
+    @Test(description = "Verify a missing data file is reported",
+            expectedExceptions = IllegalArgumentException.class)
+    public void testMissingFile() {
+        TestData.rows("no-such-file.csv", "a");
+    }
+}
@@ -0,0 +1,196 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ActionBatch - Queues several form interactions and runs them in as few WebDriver calls
+ * as possible. Consecutive steps run in one script that fires the same events a user
+ * would cause (focus, key and input events, change, click). A click ends a script run,
+ * since it may navigate. A step whose element is not ready yet runs through the normal
+ * wait-then-act path, and nativeInput() runs the whole batch with sendKeys/click.
+ *
+ * <pre>
+ * utils.batch().type(username, "standard_user").type(password, "secret").click(loginButton).perform();
+ * </pre>
+ */
+public class ActionBatch {
+    private static final String SCRIPT = JsLocators.FIND_FUNCTION + JsLocators.VISIBLE_FUNCTION
+            + "var steps = arguments[0], done = 0;\n"
+            + "function setValue(el, value) {\n"
+            + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;\n"
+            + "  var setter = Object.getOwnPropertyDescriptor(proto, 'value').set;\n"
+            // use the native setter so frameworks that track the value (React) see the change
+            + "  setter.call(el, value);\n"
+            + "}\n"
+            + "function key(el, type, ch) {\n"
+            + "  el.dispatchEvent(new KeyboardEvent(type, {key: ch, bubbles: true, cancelable: true}));\n"
+            + "}\n"
+            + "function editable(el) { return el instanceof HTMLInputElement || el instanceof HTMLTextAreaElement; }\n"
+            // A step that fails is left to the native path; it must not have changed the page by then,
+            // so each step checks its element before acting and errors end the run at that step
+            + "for (var i = 0; i < steps.length; i++) {\n"
+            + "  var step = steps[i];\n"
+            + "  try {\n"
+            + "    var el = find(step[1], step[2]);\n"
+            + "    if (!visible(el) || el.disabled) return done;\n"
+            + "    if (step[0] === 'type') {\n"
+            + "      if (!editable(el)) return done;\n"
+            + "      el.focus();\n"
+            + "      for (var c = 0; c < step[3].length; c++) {\n"
+            + "        var ch = step[3].charAt(c);\n"
+            + "        key(el, 'keydown', ch); key(el, 'keypress', ch);\n"
+            + "        setValue(el, el.value + ch);\n"
+            + "        el.dispatchEvent(new InputEvent('input', {data: ch, inputType: 'insertText', bubbles: true}));\n"
+            + "        key(el, 'keyup', ch);\n"
+            + "      }\n"
+            + "      el.dispatchEvent(new Event('change', {bubbles: true}));\n"
+            + "    } else if (step[0] === 'clear') {\n"
+            + "      if (!editable(el)) return done;\n"
+            + "      el.focus();\n"
+            + "      setValue(el, '');\n"
+            + "      el.dispatchEvent(new InputEvent('input', {inputType: 'deleteContentBackward', bubbles: true}));\n"
+            + "      el.dispatchEvent(new Event('change', {bubbles: true}));\n"
+            + "    } else if (step[0] === 'select') {\n"
+            + "      if (!(el instanceof HTMLSelectElement)) return done;\n"
+            + "      var option = Array.prototype.find.call(el.options, function (o) { return o.text.trim() === step[3]; });\n"
+            + "      if (!option) return done;\n"
+            + "      el.value = option.value;\n"
+            + "      el.dispatchEvent(new Event('input', {bubbles: true}));\n"
+            + "      el.dispatchEvent(new Event('change', {bubbles: true}));\n"
+            + "    } else if (step[0] === 'click') {\n"
+            + "      el.scrollIntoView({block: 'center'});\n"
+            + "      el.click();\n"
+            + "      return done + 1;\n"
+            + "    }\n"
+            + "  } catch (e) {\n"
+            + "    return done;\n"
+            + "  }\n"
+            + "  done++;\n"
+            + "}\n"
+            + "return done;\n";
+
+    private final WebDriverUtils utils;
+    private final List<Step> steps = new ArrayList<>();
+    private boolean nativeInput;
+
+    ActionBatch(WebDriverUtils utils) {
+        this.utils = utils;
+    }
+
+    /**
+     * Type text into the element (appends, like sendKeys)
+     */
+    public ActionBatch type(By locator, String text) {
+        steps.add(new Step("type", locator, text));
+        return this;
+    }
+
+    /**
+     * Clear the element
+     */
+    public ActionBatch clear(By locator) {
+        steps.add(new Step("clear", locator, ""));
+        return this;
+    }
+
+    /**
+     * Click the element
+     */
+    public ActionBatch click(By locator) {
+        steps.add(new Step("click", locator, ""));
+        return this;
+    }
+
+    /**
+     * Select a dropdown option by visible text
+     */
+    public ActionBatch select(By locator, String visibleText) {
+        steps.add(new Step("select", locator, visibleText));
+        return this;
+    }
+
+    /**
+     * Run this batch with native sendKeys/click instead of scripts
+     */
+    public ActionBatch nativeInput() {
+        this.nativeInput = true;
+        return this;
+    }
+
+    /**
+     * Run all queued steps in order
+     */
+    public void perform() {
+        CommandMetrics.step("batch of " + steps.size() + " actions", this::run);
+    }
+
+    private void run() {
+        boolean scripted = !nativeInput && utils.getDriver() instanceof JavascriptExecutor;
+        int next = 0;
+        while (next < steps.size()) {
+            int completed = scripted ? runScript(next) : 0;
+            if (completed < 0) {
+                scripted = false;
+                completed = 0;
+            }
+            next += completed;
+            if (completed == 0 && next < steps.size()) {
+                // Element not ready (or no scripts): wait for it the normal way
+                runNative(steps.get(next++));
+            }
+        }
+    }
+
+    // Run as many steps as possible from index 'from' in one script and return how many completed;
+    // -1 if the script could not run at all (no step was applied)
+    private int runScript(int from) {
+        List<List<String>> args = new ArrayList<>();
+        for (Step step : steps.subList(from, steps.size())) {
+            String[] js = JsLocators.toJs(step.locator);
+            if (js == null) break;
+            args.add(Arrays.asList(step.action, js[0], js[1], step.text));
+        }
+        if (args.isEmpty()) return 0;
+
+        try {
+            Object done = ((JavascriptExecutor) utils.getDriver()).executeScript(SCRIPT, args);
+            return done instanceof Number ? ((Number) done).intValue() : -1;
+        } catch (WebDriverException e) {
+            return -1;
+        }
+    }
+
+    private void runNative(Step step) {
+        switch (step.action) {
+            case "type":
+                utils.sendKeys(step.locator, step.text);
+                break;
+            case "clear":
+                utils.waitForElementToBeVisible(step.locator).clear();
+                break;
+            case "select":
+                utils.selectDropdownByVisibleText(step.locator, step.text);
+                break;
+            default:
+                utils.click(step.locator);
+        }
+    }
+
+    private static final class Step {
+        private final String action;
+        private final By locator;
+        private final String text;
+
+        private Step(String action, By locator, String text) {
+            this.action = action;
+            this.locator = locator;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package utils;
+
+/**
+ * AppUrls - URLs of the applications under test.
+ * &lt;name&gt;.url in config.properties is the live site; while the fixture server runs,
+ * fixture.&lt;name&gt;.path points to its local copy instead.
+ */
+public final class AppUrls {
+    private static final String DEFAULT_APP_URL = "https://www.saucedemo.com/";
+
+    private AppUrls() {}
+
+    /**
+     * Base URL of the application under test (app.url or its fixture copy)
+     */
+    public static String base() {
+        String url = get("app");
+        return url == null || url.isEmpty() ? DEFAULT_APP_URL : url;
+    }
+
+    /**
+     * URL of the named site, or null when it is not configured
+     */
+    public static String get(String name) {
+        if (FixtureServer.isRunning()) {
+            String path = ConfigReader.get("fixture." + name + ".path");
+            if (path != null) {
+                return FixtureServer.getUrl() + path.trim().replaceFirst("^/", "");
+            }
+        }
+        return ConfigReader.get(name + ".url");
+    }
+}
@@ -2,62 +2,213 @@ package utils;
 
 import org.testng.annotations.Listeners;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import pages.BasePage;
+import pages.LoginPage;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
 /**
- * BaseTest class - Contains common setup and teardown methods for all test classes
+ * BaseTest class - Contains common setup and teardown methods for all test classes.
+ * The driver is bound to the test thread (see DriverManager) so test methods can run in parallel.
  */
 @Listeners(TestListener.class)
-public class BaseTest {
-    protected WebDriver driver;
+public class BaseTest implements DriverProvider {
+    private static final Log log = Log.get(BaseTest.class);
 
     @BeforeSuite
     public void initReport() {
         ExtentReportManager.initReport();
     }
 
+    @BeforeSuite
+    public void startFixtureServer() {
+        FixtureServer.start();
+    }
+
     @BeforeMethod
-    @Parameters({"browser"})
-    public void setUp(@Optional("chrome") String browser) {
-        if (browser == null || browser.isEmpty()) {
-            browser = "chrome";
-        }
+    @Parameters({"browser", "profile"})
+    public void setUp(@Optional("") String browser, @Optional("") String profile, Method method) {
+        Log.startTest(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        FrameworkConfig config = FrameworkConfig.enterTest(testParameters());
+        String browserName = browser == null || browser.isEmpty() ? config.getBrowser() : browser;
+
+        CommandMetrics.reset();
+        WaitStats.reset();
+        LaunchProfile launchProfile = LaunchProfile.named(profile);
+        DriverManager.setDriver(CommandMetrics.step("session.lease " + browserName + "/" + launchProfile,
+                () -> DriverPool.getInstance().lease(browserName, launchProfile)));
+        log.step("Browser session leased: {} ({} profile)", browserName, launchProfile);
+        applyNetworkProfile();
 
-        if (browser.equalsIgnoreCase("chrome")) {
-            WebDriverManager.chromedriver().setup();
-            driver = new ChromeDriver();
-        } else if (browser.equalsIgnoreCase("firefox")) {
-            WebDriverManager.firefoxdriver().setup();
-            driver = new FirefoxDriver();
+        StartAs startAs = method.getAnnotation(StartAs.class);
+        if (startAs != null) {
+            startAs(startAs.user(), startAs.path());
+        } else {
+            openStartPage();
         }
+    }
 
-        driver.manage().window().maximize();
-        ExtentReportManager.logInfo("Browser launched: " + browser);
+    /**
+     * Open the page that tests without @StartAs start on; nothing by default
+     */
+    protected void openStartPage() {
     }
 
-    @AfterMethod
-    public void tearDown() {
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        // Before the release, so the pool's reset commands are not counted as the test's own
+        if (CommandMetrics.isEnabled()) {
+            log.step("Command latency: {}", CommandMetrics.summary());
+            CommandMetrics.export(result.getMethod().getQualifiedName());
+        }
+        WebDriver driver = DriverManager.getDriver();
         if (driver != null) {
-            driver.quit();
-            ExtentReportManager.logInfo("Browser closed");
+            NetworkInterception network = NetworkInterception.of(driver);
+            if (network != null) {
+                log.step(network.summary());
+            }
+            // Only a lost session is recycled here; timeouts and stale or missing elements leave a healthy
+            // browser, and the pool's reset and health check catch anything else
+            Throwable failure = result.getThrowable();
+            boolean crashed = failure instanceof NoSuchSessionException
+                    || failure instanceof SessionNotCreatedException
+                    || failure instanceof UnreachableBrowserException;
+            DriverPool.getInstance().release(driver, crashed);
+            DriverManager.unload();
+            log.step("Browser session released");
         }
         ExtentReportManager.endTest();
+        FrameworkConfig.exitTest();
+        Log.endTest();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void finishSuite() {
+        DriverPool.getInstance().shutdown();
+        FixtureServer.stop();
+        if (FrameworkConfig.get().isAdaptiveWaits()) {
+            LocatorTimings.getInstance().save();
+        }
+        ScreenshotUtil.awaitPendingWrites(30);
         ExtentReportManager.flushReport();
+        ExtentReportManager.closeReport();
+        log.info("Report flushed {} times, {} ms spent in reporting",
+                ExtentReportManager.getFlushCount(), ExtentReportManager.getReportingTimeMillis());
+    }
+
+    // Parameters of the running <test> (and its suite), layered over the configuration
+    private static Map<String, String> testParameters() {
+        ITestResult current = Reporter.getCurrentTestResult();
+        return current != null ? current.getTestContext().getCurrentXmlTest().getAllParameters() : null;
+    }
+
+    /**
+     * Apply the network profile of the &lt;test&gt; ("network" parameter, else network.profile).
+     * Browsers without DevTools support run unintercepted.
+     */
+    private void applyNetworkProfile() {
+        NetworkInterception network = NetworkInterception.of(getDriver());
+        if (network == null) return;
+
+        String profile = null;
+        ITestResult current = Reporter.getCurrentTestResult();
+        if (current != null) {
+            profile = current.getTestContext().getCurrentXmlTest().getParameter("network");
+        }
+        if (profile == null) {
+            profile = FrameworkConfig.current().getNetworkProfile();
+        }
+        // A pooled session keeps its interceptor - applying "none" also clears the previous test's rules
+        network.apply(profile);
+    }
+
+    /**
+     * Get the driver of the current test thread
+     */
+    @Override
+    public WebDriver getDriver() {
+        return DriverManager.getDriver();
     }
 
     /**
-     * Navigate to URL
+     * Get the application base URL (app.url, or its local copy while the fixture server runs)
+     */
+    public String getBaseUrl() {
+        return AppUrls.base();
+    }
+
+    /**
+     * Get the URL of a named site (&lt;name&gt;.url, or fixture.&lt;name&gt;.path on the fixture server)
+     */
+    public String getUrl(String name) {
+        String url = AppUrls.get(name);
+        if (url == null || url.isEmpty()) {
+            throw new IllegalStateException("No URL configured for " + name + " (" + name + ".url)");
+        }
+        return url;
+    }
+
+    /**
+     * Open the page (relative to app.url) logged in as the user, reusing a saved session when possible
+     */
+    protected void startAs(String user, String path) {
+        String url = getBaseUrl() + path.replaceFirst("^/", "");
+        SessionCache.startAs(getDriver(), user, url, this::loginThroughUi);
+        PageReadiness.await(getDriver(), Collections.emptyList());
+        log.step("Started as {} on {}", user, url);
+    }
+
+    /**
+     * Log the user in through the login page and wait until the app leaves it
+     */
+    protected void loginThroughUi(WebDriver driver, String user) {
+        String password = ConfigReader.get("users." + user + ".password");
+        if (password == null) {
+            password = ConfigReader.get("users.default.password");
+        }
+
+        driver.navigate().to(getBaseUrl());
+        new LoginPage(driver).login(user, password);
+        try {
+            new WebDriverWait(driver, FrameworkConfig.current().getExplicitWait())
+                    .until(ExpectedConditions.not(ExpectedConditions.urlToBe(getBaseUrl())));
+        } catch (org.openqa.selenium.TimeoutException e) {
+            throw new IllegalStateException("UI login failed for user " + user, e);
+        }
+        log.step("Logged in through the UI as {}", user);
+    }
+
+    /**
+     * Navigate to URL and wait for the page to settle (see PageReadiness)
      */
     public void navigateToURL(String url) {
-        driver.navigate().to(url);
-        ExtentReportManager.logInfo("Navigated to URL: " + url);
+        CommandMetrics.step("navigate " + url, () -> getDriver().navigate().to(url));
+        PageReadiness.await(getDriver(), Collections.emptyList());
+        log.step("Navigated to URL: {}", url);
+    }
+
+    /**
+     * Navigate to URL and wait, in one readiness check, until the page has settled with its markers visible
+     */
+    public void navigateToURL(String url, BasePage page) {
+        CommandMetrics.step("navigate " + url, () -> getDriver().navigate().to(url));
+        page.waitUntilReady();
+        log.step("Navigated to URL: {}", url);
     }
 }
@@ -0,0 +1,248 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * CommandMetrics - Per-thread latency record of the current test: every WebDriver command
+ * (see CommandTimingListener) and every framework step (WebDriverUtils actions, session
+ * lease, navigation). BaseTest resets it in setUp and exports it in tearDown, to the report
+ * and as JSON and Prometheus text files under &lt;report.path&gt;/metrics/.
+ */
+public final class CommandMetrics {
+    private static final Log log = Log.get(CommandMetrics.class);
+    private static final boolean ENABLED = FrameworkConfig.get().isMetricsEnabled();
+    private static final int TOP_STEPS = FrameworkConfig.get().getMetricsTopSteps();
+    private static final double[] PERCENTILES = {50, 95, 99};
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(Recorder::new);
+
+    private CommandMetrics() {}
+
+    /**
+     * Whether drivers are instrumented (metrics.enabled)
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Clear the current thread's record
+     */
+    public static void reset() {
+        recorder.get().reset();
+    }
+
+    static void recordCommand(String command, long nanos) {
+        Recorder r = recorder.get();
+        r.commands.record(nanos);
+        long[] stats = r.byCommand.computeIfAbsent(command, k -> new long[2]);
+        stats[0]++;
+        stats[1] += nanos / 1_000;
+    }
+
+    /**
+     * Run a framework step and record its latency. Steps nested in another step
+     * (click waiting for its element) are part of the outer step.
+     */
+    public static <T> T step(String name, Supplier<T> action) {
+        if (!ENABLED) return action.get();
+        Recorder r = recorder.get();
+        if (r.stepDepth++ > 0) {
+            try {
+                return action.get();
+            } finally {
+                r.stepDepth--;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            r.stepDepth--;
+            r.recordStep(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Run a framework step that returns nothing and record its latency
+     */
+    public static void step(String name, Runnable action) {
+        step(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Number of WebDriver commands recorded for the current thread's test
+     */
+    public static long getCommandCount() {
+        return recorder.get().commands.getCount();
+    }
+
+    /**
+     * One-line summary of the current thread's test for the report
+     */
+    public static String summary() {
+        Recorder r = recorder.get();
+        StringBuilder sb = new StringBuilder();
+        sb.append(r.commands.getCount()).append(" WebDriver commands (")
+                .append(percentiles(r.commands)).append(", total ").append(r.commands.getSumMicros() / 1_000).append(" ms)");
+        if (r.steps.getCount() > 0) {
+            sb.append("; ").append(r.steps.getCount()).append(" steps (").append(percentiles(r.steps)).append(")");
+        }
+        if (!r.slowest.isEmpty()) {
+            sb.append("; slowest steps:");
+            for (SlowStep step : r.slowest) {
+                sb.append(' ').append(step.name).append('=').append(step.micros / 1_000).append("ms");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the current thread's record as &lt;test&gt;.json and &lt;test&gt;.prom in the metrics folder
+     */
+    public static void export(String testName) {
+        if (!ENABLED) return;
+        Recorder r = recorder.get();
+        String fileName = testName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Thread.currentThread().getId()
+                + "-" + System.currentTimeMillis();
+        try {
+            Path dir = Paths.get(FrameworkConfig.get().getReportDir(), "metrics");
+            Files.createDirectories(dir);
+            Files.write(dir.resolve(fileName + ".json"), gson.toJson(toJson(testName, r)).getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve(fileName + ".prom"), toPrometheus(testName, r).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Could not write command metrics of {}: {}", testName, e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> toJson(String testName, Recorder r) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("test", testName);
+        json.put("commands", histogramJson(r.commands));
+        Map<String, Object> byCommand = new LinkedHashMap<>();
+        r.byCommand.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+                .forEach(e -> {
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("count", e.getValue()[0]);
+                    stats.put("totalMicros", e.getValue()[1]);
+                    byCommand.put(e.getKey(), stats);
+                });
+        json.put("byCommand", byCommand);
+        json.put("steps", histogramJson(r.steps));
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        for (SlowStep step : r.slowest) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("step", step.name);
+            s.put("micros", step.micros);
+            slowest.add(s);
+        }
+        json.put("slowestSteps", slowest);
+        return json;
+    }
+
+    private static Map<String, Object> histogramJson(LatencyHistogram histogram) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", histogram.getCount());
+        json.put("totalMicros", histogram.getSumMicros());
+        for (double p : PERCENTILES) {
+            json.put("p" + (int) p + "Micros", histogram.percentile(p));
+        }
+        json.put("maxMicros", histogram.getMaxMicros());
+        return json;
+    }
+
+    private static String toPrometheus(String testName, Recorder r) {
+        String test = "test=\"" + testName.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        StringBuilder sb = new StringBuilder();
+        summaryMetric(sb, "selenium_command_latency_seconds", "Latency of WebDriver commands", test, r.commands);
+        summaryMetric(sb, "selenium_step_latency_seconds", "Latency of framework steps", test, r.steps);
+
+        sb.append("# HELP selenium_commands_total WebDriver commands by name\n");
+        sb.append("# TYPE selenium_commands_total counter\n");
+        r.byCommand.forEach((command, stats) ->
+                sb.append("selenium_commands_total{").append(test).append(",command=\"").append(command).append("\"} ")
+                        .append(stats[0]).append('\n'));
+        return sb.toString();
+    }
+
+    private static void summaryMetric(StringBuilder sb, String name, String help, String labels, LatencyHistogram histogram) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" summary\n");
+        for (double p : PERCENTILES) {
+            sb.append(name).append('{').append(labels).append(",quantile=\"").append(p / 100).append("\"} ")
+                    .append(seconds(histogram.percentile(p))).append('\n');
+        }
+        sb.append(name).append("_sum{").append(labels).append("} ").append(seconds(histogram.getSumMicros())).append('\n');
+        sb.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static String percentiles(LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder();
+        for (double p : PERCENTILES) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append('p').append((int) p).append(' ').append(String.format("%.1f", histogram.percentile(p) / 1000.0)).append(" ms");
+        }
+        return sb.toString();
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1_000_000.0);
+    }
+
+    private static final class Recorder {
+        private final LatencyHistogram commands = new LatencyHistogram();
+        private final LatencyHistogram steps = new LatencyHistogram();
+        // command -> {count, total micros}
+        private final Map<String, long[]> byCommand = new HashMap<>();
+        private final List<SlowStep> slowest = new ArrayList<>();
+        private int stepDepth;
+
+        void recordStep(String name, long nanos) {
+            steps.record(nanos);
+            long micros = nanos / 1_000;
+            if (TOP_STEPS <= 0) return;
+            if (slowest.size() < TOP_STEPS || micros > slowest.get(slowest.size() - 1).micros) {
+                slowest.add(new SlowStep(name, micros));
+                slowest.sort(Comparator.comparingLong((SlowStep s) -> s.micros).reversed());
+                if (slowest.size() > TOP_STEPS) slowest.remove(slowest.size() - 1);
+            }
+        }
+
+        void reset() {
+            commands.reset();
+            steps.reset();
+            byCommand.clear();
+            slowest.clear();
+            stepDepth = 0;
+        }
+    }
+
+    private static final class SlowStep {
+        private final String name;
+        private final long micros;
+
+        private SlowStep(String name, long micros) {
+            this.name = name;
+            this.micros = micros;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * CommandTimingListener - Times every call on a decorated driver (and the elements,
+ * navigation and options objects it hands out) into CommandMetrics.
+ * Calls that only return a WebDriver sub-interface (navigate(), manage(), switchTo()...)
+ * do not reach the browser and are not recorded.
+ */
+class CommandTimingListener implements WebDriverListener {
+    private static final ThreadLocal<Deque<long[]>> started = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        started.get().push(new long[] {System.nanoTime()});
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(method);
+    }
+
+    private static void record(Method method) {
+        long[] start = started.get().poll();
+        if (start == null || method.getReturnType().getEnclosingClass() == WebDriver.class) return;
+        CommandMetrics.recordCommand(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                System.nanoTime() - start[0]);
+    }
+}
@@ -1,22 +1,34 @@
 package utils;
 
-import java.io.InputStream;
-import java.util.Properties;
-
+/**
+ * ConfigReader - Key/value access to the configuration of the current test.
+ * Values come from the FrameworkConfig snapshot (config.properties, environment, -D and
+ * &lt;test&gt; parameters); malformed values throw instead of falling back to defaults.
+ */
 public class ConfigReader {
-    private static final Properties prop = new Properties();
 
-    static {
-        try (InputStream in = ConfigReader.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (in != null) {
-                prop.load(in);
-            }
-        } catch (Exception e) {
-            // ignore - fallback to defaults where used
-        }
+    public static String get(String key) {
+        return FrameworkConfig.current().get(key);
     }
 
-    public static String get(String key) {
-        return prop.getProperty(key);
+    /**
+     * Get an integer value, or the default when the key is missing
+     */
+    public static int getInt(String key, int defaultValue) {
+        return FrameworkConfig.current().getInt(key, defaultValue);
+    }
+
+    /**
+     * Get a count where "auto" means the number of available cores
+     */
+    public static int getCount(String key, int defaultValue) {
+        return FrameworkConfig.current().getCount(key, defaultValue);
+    }
+
+    /**
+     * Get a boolean value, or the default when the key is missing
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return FrameworkConfig.current().getBoolean(key, defaultValue);
     }
 }
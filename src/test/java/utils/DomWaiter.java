@@ -0,0 +1,103 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+
+/**
+ * DomWaiter - Event-driven waits. A MutationObserver is installed in the page through
+ * executeAsyncScript and the script returns as soon as the locator's condition holds,
+ * so a wait costs one round trip instead of one per polling interval.
+ * Supports the locator types of JsLocators.
+ */
+class DomWaiter {
+    enum Condition { PRESENT, VISIBLE, CLICKABLE }
+
+    // Script timeout is 30s by default; longer waits go to polling
+    private static final Duration MAX_SCRIPT_WAIT = Duration.ofSeconds(25);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String SCRIPT = JsLocators.FIND_FUNCTION + JsLocators.VISIBLE_FUNCTION
+            + "var kind = arguments[0], value = arguments[1], condition = arguments[2], timeout = arguments[3];\n"
+            + "var done = arguments[arguments.length - 1];\n"
+            + "function satisfied(el) {\n"
+            + "  if (!el) return false;\n"
+            + "  if (condition === 'PRESENT') return true;\n"
+            + "  if (!visible(el)) return false;\n"
+            + "  return condition !== 'CLICKABLE' || !el.disabled;\n"
+            + "}\n"
+            + "var first = find(kind, value);\n"
+            + "if (satisfied(first)) { done(first); return; }\n"
+            + "var finished = false, observer, timer, ticker;\n"
+            + "function finish(result) {\n"
+            + "  if (finished) return;\n"
+            + "  finished = true;\n"
+            + "  observer.disconnect(); clearTimeout(timer); clearInterval(ticker);\n"
+            + "  done(result);\n"
+            + "}\n"
+            + "function check() { var el = find(kind, value); if (satisfied(el)) finish(el); }\n"
+            + "observer = new MutationObserver(check);\n"
+            + "observer.observe(document.documentElement || document,"
+            + " {childList: true, subtree: true, attributes: true, characterData: true});\n"
+            // stylesheet transitions do not mutate the DOM, so re-check on a slow in-page tick too
+            + "ticker = setInterval(check, 100);\n"
+            + "timer = setTimeout(function () { finish(null); }, timeout);\n";
+
+    private final WebDriver driver;
+    private volatile boolean usable;
+
+    DomWaiter(WebDriver driver) {
+        this.driver = driver;
+        this.usable = driver instanceof JavascriptExecutor;
+    }
+
+    /**
+     * Whether this locator can be waited on in the page
+     */
+    boolean supports(By locator, Duration timeout) {
+        return usable && JsLocators.toJs(locator) != null && timeout.compareTo(MAX_SCRIPT_WAIT) <= 0;
+    }
+
+    /**
+     * Wait for the condition in the page. Returns the element, throws TimeoutException when the
+     * condition did not hold in time, or returns null when script waits are not possible here
+     * and the caller should poll instead.
+     */
+    WebElement await(By locator, Condition condition, Duration timeout) {
+        String[] kind = JsLocators.toJs(locator);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) break;
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                        SCRIPT, kind[0], kind[1], condition.name(), remainingMillis);
+                if (result instanceof WebElement) {
+                    return (WebElement) result;
+                }
+                break;
+            } catch (UnsupportedCommandException e) {
+                usable = false;
+                return null;
+            } catch (JavascriptException | ScriptTimeoutException e) {
+                // The document navigated away under the observer - try again in the new page
+            } catch (WebDriverException e) {
+                return null;
+            }
+        }
+        if (System.nanoTime() < deadline) {
+            // Navigations used up the retries; let polling have the rest of the time
+            return null;
+        }
+        throw new TimeoutException("Expected condition " + condition + " of " + locator
+                + " not met within " + timeout.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,71 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * DriverAccessors - Per-class cache of how to read the WebDriver from a test instance
+ * that does not implement DriverProvider. Each class is inspected once (a 'driver'
+ * field up the hierarchy, then a public getDriver() method); afterwards a lookup is a
+ * single ClassValue hit and a MethodHandle call.
+ */
+final class DriverAccessors {
+    private static final MethodHandle NONE = MethodHandles.constant(Object.class, null);
+
+    private static final ClassValue<MethodHandle> accessors = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private DriverAccessors() {}
+
+    /**
+     * Read the driver from the instance, or null if its class exposes none
+     */
+    static WebDriver get(Object instance) {
+        MethodHandle accessor = accessors.get(instance.getClass());
+        if (accessor == NONE) return null;
+        try {
+            Object value = accessor.invoke(instance);
+            if (value instanceof ThreadLocal) {
+                value = ((ThreadLocal<?>) value).get();
+            }
+            return value instanceof WebDriver ? (WebDriver) value : null;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle resolve(Class<?> type) {
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            Field field;
+            try {
+                field = cls.getDeclaredField("driver");
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            if (WebDriver.class.isAssignableFrom(field.getType()) || field.getType() == ThreadLocal.class) {
+                try {
+                    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+                    return lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                } catch (IllegalAccessException e) {
+                    break;
+                }
+            }
+        }
+
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(type, "getDriver", MethodType.methodType(WebDriver.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return NONE;
+        }
+    }
+}
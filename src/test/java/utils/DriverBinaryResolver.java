@@ -0,0 +1,153 @@
+package utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.Config;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import io.github.bonigarcia.wdm.online.HttpClient;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DriverBinaryResolver - Resolves the driver binary for each browser once per JVM.
+ * Order of lookup:
+ * 1. A pre-provisioned path (&lt;browser&gt;.driver.path), required when driver.offline=true
+ * 2. The on-disk cache in driver.cache.path, keyed by installed browser version
+ * 3. WebDriverManager resolution, whose result is written back to the cache
+ */
+public final class DriverBinaryResolver {
+    private static final Log log = Log.get(DriverBinaryResolver.class);
+    private static final String CACHE_FILE = "resolution.properties";
+    private static final Map<String, CompletableFuture<String>> resolved = new ConcurrentHashMap<>();
+
+    private DriverBinaryResolver() {}
+
+    /**
+     * Make sure the driver binary for the browser is resolved and exported as a system property.
+     * Only the first call per browser does any work; concurrent callers wait for it.
+     * A failed resolution is not kept, so the next call tries again.
+     */
+    public static String resolve(String browser) {
+        String key = browser.toLowerCase();
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> other = resolved.putIfAbsent(key, mine);
+        if (other != null) {
+            return await(other);
+        }
+        // Lookup and download run outside the map, so other browsers are not blocked meanwhile
+        try {
+            String path = resolveOnce(key);
+            mine.complete(path);
+            return path;
+        } catch (RuntimeException | Error e) {
+            resolved.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private static String resolveOnce(String browser) {
+        DriverManagerType type = browser.equals("firefox") ? DriverManagerType.FIREFOX : DriverManagerType.CHROME;
+        String property = type == DriverManagerType.FIREFOX ? "webdriver.gecko.driver" : "webdriver.chrome.driver";
+
+        FrameworkConfig config = FrameworkConfig.get();
+        String provisioned = config.getDriverPath(browser);
+        if (provisioned != null) {
+            return export(property, Paths.get(provisioned), "pre-provisioned");
+        }
+        if (config.isDriverOffline()) {
+            throw new IllegalStateException("driver.offline=true but " + browser + ".driver.path is not set");
+        }
+
+        Path cacheDir = Paths.get(config.getDriverCachePath());
+        WebDriverManager wdm = WebDriverManager.getInstance(type).cachePath(cacheDir.toString());
+        Optional<String> browserVersion = detectBrowserVersion(wdm.config(), type);
+        String cacheKey = browser + "." + browserVersion.orElse("unknown");
+
+        Properties cache = loadCache(cacheDir);
+        String cached = cache.getProperty(cacheKey);
+        if (browserVersion.isPresent() && cached != null && Files.isRegularFile(Paths.get(cached))) {
+            return export(property, Paths.get(cached), "cache " + cacheKey);
+        }
+
+        browserVersion.ifPresent(wdm::browserVersion);
+        wdm.setup();
+        String driverPath = wdm.getDownloadedDriverPath();
+        if (browserVersion.isPresent() && driverPath != null) {
+            cache.setProperty(cacheKey, driverPath);
+            storeCache(cacheDir, cache);
+        }
+        return export(property, Paths.get(driverPath), "WebDriverManager");
+    }
+
+    private static String export(String property, Path driverPath, String source) {
+        if (!Files.isRegularFile(driverPath)) {
+            throw new IllegalStateException("Driver binary not found: " + driverPath);
+        }
+        String path = driverPath.toAbsolutePath().toString();
+        System.setProperty(property, path);
+        log.info("Using driver {} from {}", path, source);
+        return path;
+    }
+
+    private static Optional<String> detectBrowserVersion(Config config, DriverManagerType type) {
+        try {
+            VersionDetector detector = new VersionDetector(config, new HttpClient(config));
+            return detector.getBrowserVersionFromTheShell(type.getBrowserNameLowerCase())
+                    .map(VersionDetector::getMajorVersion);
+        } catch (Exception e) {
+            log.warn("Could not detect installed {} version: {}", type.getBrowserName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Properties loadCache(Path cacheDir) {
+        Properties cache = new Properties();
+        Path file = cacheDir.resolve(CACHE_FILE);
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                cache.load(in);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable driver cache {}: {}", file, e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static void storeCache(Path cacheDir, Properties cache) {
+        try {
+            Files.createDirectories(cacheDir);
+            // Write then move so a parallel JVM never reads a half-written file
+            Path tmp = Files.createTempFile(cacheDir, CACHE_FILE, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                cache.store(out, "Resolved driver binaries by browser version");
+            }
+            Files.move(tmp, cacheDir.resolve(CACHE_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write driver cache in {}: {}", cacheDir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package utils;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * DriverFactory - Creates new browser sessions for the driver pool
+ */
+public final class DriverFactory {
+    private DriverFactory() {}
+
+    /**
+     * Launch a new browser session with the given launch profile.
+     * With metrics.enabled the session is returned wrapped in a command-timing decorator.
+     */
+    public static WebDriver create(String browser, LaunchProfile profile) {
+        DriverBinaryResolver.resolve(browser);
+
+        WebDriver driver;
+        if (browser.equalsIgnoreCase("firefox")) {
+            driver = new FirefoxDriver(firefoxOptions(profile));
+        } else {
+            driver = new ChromeDriver(chromeOptions(profile));
+        }
+
+        if (profile.isMaximized() && !profile.isHeadless()) {
+            driver.manage().window().maximize();
+        }
+        Duration implicitWait = FrameworkConfig.get().getImplicitWait();
+        if (!implicitWait.isZero()) {
+            driver.manage().timeouts().implicitlyWait(implicitWait);
+        }
+        if (!CommandMetrics.isEnabled()) {
+            NetworkInterception.register(driver, driver);
+            return driver;
+        }
+        WebDriver decorated = new EventFiringDecorator<>(new CommandTimingListener()).decorate(driver);
+        // DevTools needs the real driver; tests only ever see the decorated one
+        NetworkInterception.register(driver, decorated);
+        return decorated;
+    }
+
+    private static ChromeOptions chromeOptions(LaunchProfile profile) {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(profile.getPageLoadStrategy()));
+        if (profile.isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        if (!profile.isMaximized()) {
+            options.addArguments("--window-size=" + profile.getWindowWidth() + "," + profile.getWindowHeight());
+        } else if (profile.isHeadless()) {
+            // maximize() has no screen to fill when headless
+            options.addArguments("--window-size=1920,1080");
+        }
+        if (profile.isDisableImages()) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+            options.setExperimentalOption("prefs",
+                    Collections.singletonMap("profile.managed_default_content_settings.images", 2));
+        }
+        if (profile.isDisableExtensions()) {
+            options.addArguments("--disable-extensions");
+        }
+        if (profile.isDisableDevShm()) {
+            // /dev/shm is small in containers; use /tmp for shared memory instead
+            options.addArguments("--disable-dev-shm-usage");
+        }
+        return options;
+    }
+
+    private static FirefoxOptions firefoxOptions(LaunchProfile profile) {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(profile.getPageLoadStrategy()));
+        if (profile.isHeadless()) {
+            options.addArguments("-headless");
+        }
+        if (!profile.isMaximized()) {
+            options.addArguments("--width=" + profile.getWindowWidth(), "--height=" + profile.getWindowHeight());
+        } else if (profile.isHeadless()) {
+            options.addArguments("--width=1920", "--height=1080");
+        }
+        if (profile.isDisableImages()) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        return options;
+    }
+}
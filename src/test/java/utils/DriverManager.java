@@ -0,0 +1,35 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * DriverManager - Holds the WebDriver leased by the current test thread.
+ * Test classes, page objects and listeners read the driver from here so
+ * parallel test methods never share a session.
+ */
+public final class DriverManager {
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+
+    private DriverManager() {}
+
+    /**
+     * Get the driver bound to the current thread (null if none)
+     */
+    public static WebDriver getDriver() {
+        return driver.get();
+    }
+
+    /**
+     * Bind a driver to the current thread
+     */
+    public static void setDriver(WebDriver webDriver) {
+        driver.set(webDriver);
+    }
+
+    /**
+     * Remove the driver from the current thread
+     */
+    public static void unload() {
+        driver.remove();
+    }
+}
@@ -0,0 +1,279 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DriverPool - Keeps warm browser sessions and leases them to tests.
+ * A released session is reset (cookies, storage, a new blank tab in place of its windows) and reused
+ * until it reaches pool.max.uses or fails a health check. Sessions are only reused
+ * for the same browser and launch profile. Storage is cleared for every origin in the
+ * windows' history through DevTools, so browsers without it are not reused.
+ */
+public final class DriverPool {
+    private static final DriverPool INSTANCE = new DriverPool(
+            FrameworkConfig.get().isPoolEnabled(),
+            FrameworkConfig.get().getPoolMaxSize(),
+            FrameworkConfig.get().getPoolMaxUses());
+
+    private final int maxSize;
+    private final int maxUses;
+    private final Map<String, Deque<Session>> idle = new HashMap<>();
+    private final Map<WebDriver, Session> leased = new IdentityHashMap<>();
+    private int live;
+
+    private DriverPool(boolean enabled, int maxSize, int maxUses) {
+        this.maxSize = Math.max(1, maxSize);
+        // A disabled pool recycles every session after one use - the old launch-and-quit behaviour
+        this.maxUses = enabled ? Math.max(1, maxUses) : 1;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Lease a healthy session for the browser with the default launch profile
+     */
+    public WebDriver lease(String browser) {
+        return lease(browser, LaunchProfile.named(null));
+    }
+
+    /**
+     * Lease a healthy session for the browser and launch profile, launching one if none is idle.
+     * Blocks while the pool is at its maximum size.
+     */
+    public WebDriver lease(String browser, LaunchProfile profile) {
+        // By settings rather than name: a <test> may override the settings of a named profile
+        String key = browser.toLowerCase() + ":" + profile.key();
+        while (true) {
+            Session session;
+            List<Session> evicted = new ArrayList<>();
+            synchronized (this) {
+                session = takeIdleOrReserve(key, evicted);
+            }
+            // Quit outside the lock so other leases and releases do not wait for a browser shutdown
+            evicted.forEach(s -> quietQuit(s.driver));
+
+            if (session == null) {
+                return launch(key, browser, profile);
+            }
+            if (isHealthy(session.driver)) {
+                synchronized (this) {
+                    leased.put(session.driver, session);
+                }
+                return session.driver;
+            }
+            destroy(session);
+        }
+    }
+
+    /**
+     * Return a session to the pool. Sessions that crashed, reached their use limit
+     * or cannot be reset are quit instead of being reused.
+     */
+    public void release(WebDriver driver, boolean crashed) {
+        if (driver == null) return;
+
+        Session session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        if (session == null) {
+            // Not created by the pool - nothing to recycle
+            quietQuit(driver);
+            return;
+        }
+
+        session.uses++;
+        if (crashed || session.uses >= maxUses || !reset(driver)) {
+            destroy(session);
+            return;
+        }
+
+        synchronized (this) {
+            idle.computeIfAbsent(session.key, k -> new ArrayDeque<>()).push(session);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Quit all idle sessions and any session still leased
+     */
+    public void shutdown() {
+        Set<Session> toQuit = Collections.newSetFromMap(new IdentityHashMap<>());
+        synchronized (this) {
+            idle.values().forEach(toQuit::addAll);
+            toQuit.addAll(leased.values());
+            idle.clear();
+            leased.clear();
+            live = 0;
+            notifyAll();
+        }
+        toQuit.forEach(s -> quietQuit(s.driver));
+    }
+
+    private Session takeIdleOrReserve(String key, List<Session> evicted) {
+        while (true) {
+            Deque<Session> sessions = idle.get(key);
+            if (sessions != null && !sessions.isEmpty()) {
+                return sessions.pop();
+            }
+            if (live < maxSize) {
+                live++;
+                return null;
+            }
+            if (evictIdleSessionOfOtherKind(evicted)) {
+                continue;
+            }
+
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+        }
+    }
+
+    // Frees a slot; the caller quits the evicted session after leaving the lock
+    private boolean evictIdleSessionOfOtherKind(List<Session> evicted) {
+        for (Deque<Session> sessions : idle.values()) {
+            Session session = sessions.pollLast();
+            if (session != null) {
+                live--;
+                evicted.add(session);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private WebDriver launch(String key, String browser, LaunchProfile profile) {
+        try {
+            WebDriver driver = DriverFactory.create(browser, profile);
+            synchronized (this) {
+                leased.put(driver, new Session(key, driver));
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                live--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private void destroy(Session session) {
+        quietQuit(session.driver);
+        synchronized (this) {
+            live--;
+            notifyAll();
+        }
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static boolean reset(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) {
+            // Page scripts can only clear the storage of the loaded origin - other origins would leak
+            return false;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        try {
+            Set<String> origins = new LinkedHashSet<>();
+            Set<String> handles = driver.getWindowHandles();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                origins.addAll(visitedOrigins(cdp));
+            }
+            for (String origin : origins) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("origin", origin);
+                params.put("storageTypes", "local_storage,indexeddb,websql,service_workers,cache_storage");
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", params);
+            }
+            // deleteAllCookies only covers the current domain
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+
+            // sessionStorage and history belong to a tab, so the next test gets a new blank one
+            NetworkInterception.resetTab(driver);
+            driver.switchTo().newWindow(WindowType.TAB);
+            String fresh = driver.getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // http(s) origins in the current window's back/forward history
+    @SuppressWarnings("unchecked")
+    private static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Map<String, Object> history = cdp.executeCdpCommand("Page.getNavigationHistory", Collections.emptyMap());
+        Object entries = history.get("entries");
+        if (!(entries instanceof List)) return origins;
+        for (Object entry : (List<Object>) entries) {
+            Object url = entry instanceof Map ? ((Map<String, Object>) entry).get("url") : null;
+            if (url == null) continue;
+            try {
+                URI uri = URI.create(url.toString());
+                if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+                    origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() >= 0 ? ":" + uri.getPort() : ""));
+                }
+            } catch (IllegalArgumentException ignored) {
+                // not a URL with an origin
+            }
+        }
+        return origins;
+    }
+
+    private static void quietQuit(WebDriver driver) {
+        WebDriverUtils.forget(driver);
+        NetworkInterception.close(driver);
+        try {
+            driver.quit();
+        } catch (WebDriverException ignored) {
+            // session already gone
+        }
+    }
+
+    private static final class Session {
+        private final String key;
+        private final WebDriver driver;
+        private int uses;
+
+        private Session(String key, WebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * DriverProvider - Implemented by test classes that can hand their WebDriver to
+ * listeners (screenshots, reporting) without any reflection.
+ */
+public interface DriverProvider {
+
+    /**
+     * Get the driver of the calling test thread
+     */
+    WebDriver getDriver();
+}
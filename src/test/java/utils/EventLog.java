@@ -0,0 +1,124 @@
+package utils;
+
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EventLog - Append-only JSON-lines log of report events for the streaming report backend.
+ * One line per event, written as it happens:
+ * <pre>
+ * {"e":"start","id":1,"name":"testLogin","desc":"...","t":1700000000000,"thread":"TestNG-1"}
+ * {"e":"log","id":1,"status":"INFO","msg":"Navigated to URL","t":...}
+ * {"e":"log","id":1,"status":"FAIL","msg":"Failure screenshot","media":"screenshots/x.png","t":...}
+ * {"e":"end","id":1,"status":"FAIL","t":...}
+ * </pre>
+ * Only the status of tests that are still running is kept in memory.
+ */
+final class EventLog {
+    private final Path file;
+    private final BufferedWriter writer;
+    private final AtomicLong ids = new AtomicLong();
+    // test id -> worst status so far, only while the test runs
+    private final Map<Long, String> running = new ConcurrentHashMap<>();
+    private boolean closed;
+
+    EventLog(Path file) {
+        this.file = file;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create report event log " + file, e);
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long start(String name, String description) {
+        long id = ids.incrementAndGet();
+        running.put(id, "PASS");
+        JsonObject event = event("start", id);
+        event.addProperty("name", name);
+        event.addProperty("desc", description);
+        event.addProperty("thread", Thread.currentThread().getName());
+        write(event);
+        return id;
+    }
+
+    void log(long id, String status, String message, String media) {
+        running.computeIfPresent(id, (k, current) -> StreamingReportRenderer.worse(current, status));
+        JsonObject event = event("log", id);
+        event.addProperty("status", status);
+        event.addProperty("msg", message);
+        if (media != null) event.addProperty("media", media);
+        write(event);
+    }
+
+    void end(long id) {
+        String status = running.remove(id);
+        JsonObject event = event("end", id);
+        event.addProperty("status", status != null ? status : "PASS");
+        write(event);
+    }
+
+    /**
+     * Push buffered events to disk
+     */
+    void flush() {
+        synchronized (writer) {
+            if (closed) return;
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Flush and close the file; later events are dropped
+     */
+    void close() {
+        synchronized (writer) {
+            if (closed) return;
+            closed = true;
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static JsonObject event(String type, long id) {
+        JsonObject event = new JsonObject();
+        event.addProperty("e", type);
+        event.addProperty("id", id);
+        event.addProperty("t", System.currentTimeMillis());
+        return event;
+    }
+
+    private void write(JsonObject event) {
+        String line = event.toString();
+        synchronized (writer) {
+            if (closed) return;
+            try {
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
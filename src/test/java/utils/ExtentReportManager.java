@@ -2,51 +2,89 @@ package utils;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 
 /**
- * ExtentReportManager - Manages Extent Report generation and logging
+ * ExtentReportManager - Manages Extent Report generation and logging.
+ * Safe to use from parallel test threads: each thread logs to its own ExtentTest, and report
+ * creation, test creation, logging and flushing are serialized on one lock, so a background
+ * flush never renders a test while it is being appended to.
+ * With report.backend=streaming, events are appended to an on-disk EventLog instead of
+ * being kept in ExtentTest objects, and the HTML is rendered from the log by flushReport();
+ * getTest() then returns null.
  */
 public class ExtentReportManager {
-    private static ExtentReports extent;
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static final Log log = Log.get(ExtentReportManager.class);
+    private static final boolean STREAMING = FrameworkConfig.get().isStreamingReport();
+    private static final Object lock = new Object();
+    private static volatile ExtentReports extent;
+    private static volatile EventLog events;
+    private static volatile Path streamingReport;
+    private static volatile ReportFlusher flusher;
+    private static final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static final ThreadLocal<Long> eventTest = new ThreadLocal<>();
 
     /**
      * Initialize ExtentReports
      */
     public static void initReport() {
-        if (extent == null) {
+        if (flusher != null) return;
+        synchronized (lock) {
+            if (flusher != null) return;
+
             String timestamp = new SimpleDateFormat("yyyy-MM-dd HH-mm-ss").format(new Date());
-            String reportDir = "test-reports";
-            try {
-                String cfg = ConfigReader.get("report.path");
-                if (cfg != null && !cfg.isEmpty()) reportDir = cfg.replaceAll("\\\\$", "");
-            } catch (Exception ignored) {}
-
-            // ensure directory ends without separator
-            if (reportDir.endsWith("/") || reportDir.endsWith("\\")) {
-                reportDir = reportDir.substring(0, reportDir.length() - 1);
-            }
+            String reportDir = FrameworkConfig.get().getReportDir();
 
-            String reportPath = reportDir + "/ExtentReport_" + timestamp + ".html";
+            String reportPath = reportDir + "/ExtentReport_" + timestamp
+                    + (ShardFilter.isSharded() ? "_" + ShardFilter.label() : "") + ".html";
 
             // Create directories if they don't exist
             new File(reportDir).mkdirs();
 
+            if (STREAMING) {
+                String logName = ShardFilter.isSharded() ? ShardFilter.label() + ".events.jsonl" : "events_" + timestamp + ".jsonl";
+                events = new EventLog(Paths.get(reportDir, logName));
+                streamingReport = Paths.get(reportPath);
+                flusher = new ReportFlusher(events::flush,
+                        FrameworkConfig.get().getFlushEveryTests(),
+                        (int) FrameworkConfig.get().getFlushInterval().getSeconds());
+                return;
+            }
+
             ExtentSparkReporter reporter = new ExtentSparkReporter(reportPath);
             reporter.config().setTheme(Theme.DARK);
             reporter.config().setDocumentTitle("TestNG Selenium Test Report");
             reporter.config().setReportName("Test Execution Report");
             
-            extent = new ExtentReports();
-            extent.attachReporter(reporter);
-            extent.setSystemInfo("OS", System.getProperty("os.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("Browser", "Chrome");
+            ExtentReports reports = new ExtentReports();
+            reports.attachReporter(reporter);
+            if (ShardFilter.isSharded()) {
+                // Mergeable copy of this shard's results - see ReportMerger
+                reports.attachReporter(new JsonFormatter(reportDir + "/" + ShardFilter.label() + ".json"));
+            }
+            reports.setSystemInfo("OS", System.getProperty("os.name"));
+            reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+            reports.setSystemInfo("Browser", FrameworkConfig.get().getBrowser());
+            flusher = new ReportFlusher(() -> {
+                        synchronized (lock) {
+                            reports.flush();
+                        }
+                    },
+                    FrameworkConfig.get().getFlushEveryTests(),
+                    (int) FrameworkConfig.get().getFlushInterval().getSeconds());
+            extent = reports;
         }
     }
 
@@ -54,75 +92,164 @@ public class ExtentReportManager {
      * Create a new test in the report
      */
     public static void startTest(String testName, String description) {
-        ExtentTest extentTest = extent.createTest(testName, description);
+        initReport();
+        if (STREAMING) {
+            eventTest.set(events.start(testName, description));
+            return;
+        }
+        ExtentTest extentTest;
+        synchronized (lock) {
+            extentTest = extent.createTest(testName, description);
+        }
         test.set(extentTest);
     }
 
     /**
-     * Get the current ExtentTest instance
+     * Get the current ExtentTest instance (null with the streaming backend).
+     * Log through the methods of this class: they hold the lock that background flushes take.
      */
     public static ExtentTest getTest() {
         return test.get();
     }
 
+    /**
+     * Whether the current thread has a test in the report
+     */
+    public static boolean isTestStarted() {
+        return test.get() != null || eventTest.get() != null;
+    }
+
     /**
      * Log information
      */
     public static void logInfo(String message) {
-        if (test.get() != null) {
-            test.get().info(message);
-        }
+        log(Status.INFO, message);
     }
 
     /**
      * Log pass
      */
     public static void logPass(String message) {
-        if (test.get() != null) {
-            test.get().pass(message);
-        }
+        log(Status.PASS, message);
     }
 
     /**
      * Log fail
      */
     public static void logFail(String message) {
-        if (test.get() != null) {
-            test.get().fail(message);
-        }
+        log(Status.FAIL, message);
     }
 
     /**
      * Log warning
      */
     public static void logWarning(String message) {
-        if (test.get() != null) {
-            test.get().warning(message);
-        }
+        log(Status.WARNING, message);
     }
 
     /**
      * Log skip
      */
     public static void logSkip(String message) {
-        if (test.get() != null) {
-            test.get().skip(message);
+        log(Status.SKIP, message);
+    }
+
+    /**
+     * Log fail with a screenshot (path relative to the report folder)
+     */
+    public static void logFailWithScreenshot(String message, String screenshotPath) {
+        Long id = eventTest.get();
+        if (id != null) {
+            events.log(id, Status.FAIL.name(), message, screenshotPath);
+        } else if (test.get() != null) {
+            synchronized (lock) {
+                test.get().fail(message, MediaEntityBuilder.createScreenCaptureFromPath(screenshotPath).build());
+            }
+        }
+    }
+
+    private static void log(Status status, String message) {
+        Long id = eventTest.get();
+        if (id != null) {
+            events.log(id, status.name(), message, null);
+        } else if (test.get() != null) {
+            synchronized (lock) {
+                test.get().log(status, message);
+            }
         }
     }
 
     /**
-     * Flush the report
+     * Flush the report now and wait for it to be written (use at suite end)
      */
     public static void flushReport() {
-        if (extent != null) {
-            extent.flush();
+        if (flusher != null) {
+            flusher.flushNow();
+        }
+        if (events != null) {
+            renderStreamingReport();
         }
     }
 
     /**
-     * End the current test
+     * Close the event log of the streaming backend after the final flush (use at suite end)
+     */
+    public static void closeReport() {
+        if (events != null) {
+            events.close();
+        }
+    }
+
+    /**
+     * Render the HTML of the streaming backend from its event log so far
+     */
+    public static void renderStreamingReport() {
+        if (events == null) return;
+        events.flush();
+        long start = System.nanoTime();
+        try {
+            StreamingReportRenderer.render(Collections.singletonList(events.getFile()), streamingReport);
+            log.info("Rendered {} in {} ms", streamingReport, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Could not render report {}: {}", streamingReport, e.getMessage());
+        }
+    }
+
+    /**
+     * Queue a background flush of the report
+     */
+    public static void requestFlush() {
+        if (flusher != null) {
+            flusher.requestFlush();
+        }
+    }
+
+    /**
+     * Total time spent writing the report, in milliseconds
+     */
+    public static long getReportingTimeMillis() {
+        return flusher != null ? flusher.getFlushMillis() : 0;
+    }
+
+    /**
+     * Number of report flushes so far
+     */
+    public static long getFlushCount() {
+        return flusher != null ? flusher.getFlushCount() : 0;
+    }
+
+    /**
+     * End the current test. The report is written by the flush policy, not per test.
      */
     public static void endTest() {
+        Long id = eventTest.get();
+        if (id != null) {
+            eventTest.remove();
+            events.end(id);
+        }
         test.remove();
+        if (flusher != null) {
+            flusher.testFinished();
+        }
     }
 }
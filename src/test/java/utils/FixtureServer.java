@@ -0,0 +1,164 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FixtureServer - Embedded HTTP server for local copies of the pages under test.
+ * Serves src/test/resources/fixtures/ on 127.0.0.1 with a fixed artificial latency
+ * (fixture.latency.ms) per response, so suites run offline with repeatable timings.
+ */
+public final class FixtureServer {
+    private static final Log log = Log.get(FixtureServer.class);
+    private static final String ROOT = "fixtures/";
+
+    private static final Map<String, Optional<byte[]>> resources = new ConcurrentHashMap<>();
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static volatile String url;
+    private static long latencyMillis;
+
+    private FixtureServer() {}
+
+    /**
+     * Start the server if fixture.server.enabled is set and it is not running yet
+     */
+    public static synchronized void start() {
+        FrameworkConfig config = FrameworkConfig.get();
+        if (server != null || !config.isFixtureServerEnabled()) return;
+
+        latencyMillis = config.getFixtureLatency().toMillis();
+        int port = config.getFixtureServerPort();
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start fixture server on port " + port, e);
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fixture-server-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", FixtureServer::handle);
+        server.start();
+
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        log.info("Fixture server started at {} ({} ms latency)", url, latencyMillis);
+    }
+
+    /**
+     * Stop the server
+     */
+    public static synchronized void stop() {
+        if (server == null) return;
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        url = null;
+        log.info("Fixture server stopped");
+    }
+
+    public static boolean isRunning() {
+        return url != null;
+    }
+
+    /**
+     * Base URL of the running server (ends with "/"), or null when it is not running
+     */
+    public static String getUrl() {
+        return url;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            serve(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void serve(HttpExchange exchange) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        String method = exchange.getRequestMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        if (path.contains("..")) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+        if (path.endsWith("/")) {
+            path += "index.html";
+        }
+
+        Optional<byte[]> body = resources.computeIfAbsent(path, FixtureServer::load);
+        if (!body.isPresent()) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", contentType(path));
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        if (method.equals("HEAD")) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, body.get().length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body.get());
+        }
+    }
+
+    private static Optional<byte[]> load(String path) {
+        try (InputStream in = FixtureServer.class.getClassLoader().getResourceAsStream(ROOT + path.substring(1))) {
+            return in == null ? Optional.empty() : Optional.of(in.readAllBytes());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".html")) return "text/html; charset=utf-8";
+        if (path.endsWith(".css")) return "text/css; charset=utf-8";
+        if (path.endsWith(".js")) return "application/javascript; charset=utf-8";
+        if (path.endsWith(".json")) return "application/json";
+        if (path.endsWith(".svg")) return "image/svg+xml";
+        if (path.endsWith(".png")) return "image/png";
+        if (path.endsWith(".jpg")) return "image/jpeg";
+        if (path.endsWith(".ico")) return "image/x-icon";
+        return "application/octet-stream";
+    }
+}
@@ -0,0 +1,719 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FrameworkConfig - Immutable, typed snapshot of the framework configuration.
+ * Layers, lowest first: config.properties, environment variables (EXPLICIT_WAIT for explicit.wait),
+ * -D system properties, and the parameters of the running &lt;test&gt; in testng.xml. Keys that are
+ * not in config.properties (e.g. USERS_STANDARD_USER_PASSWORD from CI) are looked up in the
+ * environment and -D on first use.
+ * Values are parsed and validated once when a snapshot is built; invalid values fail the run
+ * with every problem listed instead of silently falling back to defaults.
+ */
+public final class FrameworkConfig {
+    private static final String FILE = "config.properties";
+
+    private static final FrameworkConfig GLOBAL = load();
+    private static final Map<Map<String, String>, FrameworkConfig> perTest = new ConcurrentHashMap<>();
+    private static final ThreadLocal<FrameworkConfig> current = new ThreadLocal<>();
+
+    private final Map<String, String> values;
+    private final Map<String, String> sources;
+    // Environment / -D values of keys that are not in the layered values, resolved on first use
+    private final Map<String, Optional<String>> external = new ConcurrentHashMap<>();
+
+    private final String browser;
+    private final Duration implicitWait;
+    private final Duration explicitWait;
+    private final boolean observerWaits;
+    private final Duration waitPolling;
+    private final Duration probeTimeout;
+    private final boolean adaptiveWaits;
+    private final double adaptiveMargin;
+    private final int adaptiveMinSamples;
+    private final Duration adaptiveMin;
+    private final Duration adaptiveMax;
+    private final double regressionFactor;
+    private final boolean readinessEnabled;
+    private final Duration readinessIdle;
+    private final Duration readinessTimeout;
+    private final boolean readinessAnimations;
+    private final String reportDir;
+    private final boolean streamingReport;
+    private final int flushEveryTests;
+    private final Duration flushInterval;
+    private final boolean poolEnabled;
+    private final int poolMaxSize;
+    private final int poolMaxUses;
+    private final String historyPath;
+    private final int historySamples;
+    private final boolean historyScheduling;
+    private final Duration historyDefault;
+    private final String adaptivePath;
+    private final int adaptiveSamples;
+    private final boolean jpegScreenshots;
+    private final double screenshotScale;
+    private final int jpegQuality;
+    private final int screenshotWriterThreads;
+    private final int screenshotQueueSize;
+    private final boolean metricsEnabled;
+    private final int metricsTopSteps;
+    private final boolean fixtureServerEnabled;
+    private final int fixtureServerPort;
+    private final Duration fixtureLatency;
+    private final boolean driverOffline;
+    private final String driverCachePath;
+    private final String networkProfile;
+    private final Map<String, NetworkProfile> networkProfiles;
+
+    private FrameworkConfig(Map<String, String> values, Map<String, String> sources) {
+        this.values = Collections.unmodifiableMap(values);
+        this.sources = Collections.unmodifiableMap(sources);
+
+        List<String> errors = new ArrayList<>();
+        browser = oneOf("browser", "chrome", errors, "chrome", "firefox");
+        implicitWait = Duration.ofSeconds(number("implicit.wait", 0, 0, errors));
+        explicitWait = Duration.ofSeconds(number("explicit.wait", 10, 1, errors));
+        observerWaits = oneOf("wait.mode", "observer", errors, "observer", "polling").equals("observer");
+        waitPolling = Duration.ofMillis(number("wait.polling.ms", 250, 1, errors));
+        probeTimeout = Duration.ofMillis(number("wait.probe.timeout.ms", 2000, 0, errors));
+        adaptiveWaits = oneOf("wait.adaptive", "false", errors, "true", "false").equals("true");
+        adaptiveMargin = decimal("wait.adaptive.margin", 2.0, 1.0, errors);
+        adaptiveMinSamples = (int) number("wait.adaptive.min.samples", 5, 1, errors);
+        adaptiveMin = Duration.ofMillis(number("wait.adaptive.min.ms", 1000, 1, errors));
+        adaptiveMax = Duration.ofSeconds(number("wait.adaptive.max.seconds", 30, 1, errors));
+        regressionFactor = decimal("wait.adaptive.regression.factor", 3.0, 1.0, errors);
+        readinessEnabled = oneOf("readiness.enabled", "true", errors, "true", "false").equals("true");
+        readinessIdle = Duration.ofMillis(number("readiness.idle.ms", 100, 0, errors));
+        readinessTimeout = Duration.ofMillis(number("readiness.timeout.ms", 10000, 0, errors));
+        readinessAnimations = oneOf("readiness.animations", "false", errors, "true", "false").equals("true");
+        if (readinessTimeout.toMillis() > 25000) {
+            // Async scripts time out after 30 seconds
+            errors.add(describe("readiness.timeout.ms") + " must be at most 25000");
+        }
+        if (adaptiveMax.compareTo(adaptiveMin) < 0) {
+            errors.add(describe("wait.adaptive.max.seconds") + " is shorter than " + describe("wait.adaptive.min.ms"));
+        }
+        streamingReport = oneOf("report.backend", "extent", errors, "extent", "streaming").equals("streaming");
+        String dir = text("report.path", "");
+        reportDir = dir.isEmpty() ? "test-reports" : dir.replaceAll("[/\\\\]+$", "");
+        flushEveryTests = (int) number("report.flush.every.tests", 0, 0, errors);
+        flushInterval = Duration.ofSeconds(number("report.flush.interval.seconds", 30, 0, errors));
+
+        poolEnabled = oneOf("pool.enabled", "true", errors, "true", "false").equals("true");
+        poolMaxSize = count("pool.max.size", 4, errors);
+        poolMaxUses = (int) number("pool.max.uses", 20, 1, errors);
+        historyPath = text("history.path", ".test-history/run-history.json");
+        historySamples = (int) number("history.samples", 10, 1, errors);
+        historyScheduling = oneOf("history.scheduling", "true", errors, "true", "false").equals("true");
+        historyDefault = Duration.ofMillis(number("history.default.ms", 5000, 0, errors));
+        adaptivePath = text("wait.adaptive.path", ".test-history/locator-timings.json");
+        adaptiveSamples = (int) number("wait.adaptive.samples", 50, 1, errors);
+
+        jpegScreenshots = !oneOf("screenshot.format", "png", errors, "png", "jpg", "jpeg").equals("png");
+        screenshotScale = decimal("screenshot.scale", 1.0, 0.01, errors);
+        if (screenshotScale > 1.0) {
+            errors.add(describe("screenshot.scale") + " must be at most 1");
+        }
+        jpegQuality = (int) number("screenshot.jpeg.quality", 80, 1, errors);
+        if (jpegQuality > 100) {
+            errors.add(describe("screenshot.jpeg.quality") + " must be at most 100");
+        }
+        screenshotWriterThreads = (int) number("screenshot.writer.threads", 2, 1, errors);
+        screenshotQueueSize = (int) number("screenshot.queue.size", 64, 1, errors);
+
+        metricsEnabled = oneOf("metrics.enabled", "true", errors, "true", "false").equals("true");
+        metricsTopSteps = (int) number("metrics.top.steps", 5, 0, errors);
+        fixtureServerEnabled = oneOf("fixture.server.enabled", "false", errors, "true", "false").equals("true");
+        fixtureServerPort = (int) number("fixture.server.port", 0, 0, errors);
+        if (fixtureServerPort > 65535) {
+            errors.add(describe("fixture.server.port") + " must be at most 65535");
+        }
+        fixtureLatency = Duration.ofMillis(number("fixture.latency.ms", 0, 0, errors));
+        driverOffline = oneOf("driver.offline", "false", errors, "true", "false").equals("true");
+        driverCachePath = text("driver.cache.path", ".driver-cache");
+        if (driverOffline && getDriverPath(browser) == null) {
+            errors.add("driver.offline=true but " + browser + ".driver.path is not set");
+        }
+        networkProfiles = networkProfiles(errors);
+        networkProfile = text("network.profile", "none");
+        if (!networkProfile.equalsIgnoreCase("none") && !networkProfiles.containsKey(networkProfile)) {
+            errors.add(describe("network.profile") + " is not a network.<name>.* profile " + networkProfiles.keySet());
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration:\n  " + String.join("\n  ", errors));
+        }
+    }
+
+    /**
+     * Get the suite-wide configuration (without &lt;test&gt; parameters)
+     */
+    public static FrameworkConfig get() {
+        return GLOBAL;
+    }
+
+    /**
+     * Get the configuration of the test running on this thread, or the suite-wide one
+     */
+    public static FrameworkConfig current() {
+        FrameworkConfig config = current.get();
+        return config != null ? config : GLOBAL;
+    }
+
+    /**
+     * Use the suite-wide configuration overlaid with the &lt;test&gt; parameters on this thread.
+     * Snapshots are cached per parameter set, so each &lt;test&gt; is parsed once.
+     */
+    public static FrameworkConfig enterTest(Map<String, String> parameters) {
+        FrameworkConfig config = parameters == null || parameters.isEmpty()
+                ? GLOBAL
+                : perTest.computeIfAbsent(new HashMap<>(parameters), GLOBAL::overlay);
+        current.set(config);
+        return config;
+    }
+
+    /**
+     * Go back to the suite-wide configuration on this thread
+     */
+    public static void exitTest() {
+        current.remove();
+    }
+
+    private FrameworkConfig overlay(Map<String, String> parameters) {
+        Map<String, String> merged = new HashMap<>(values);
+        Map<String, String> mergedSources = new HashMap<>(sources);
+        parameters.forEach((key, value) -> {
+            merged.put(key, value);
+            mergedSources.put(key, "<test> parameter");
+        });
+        return new FrameworkConfig(merged, mergedSources);
+    }
+
+    private static FrameworkConfig load() {
+        Properties file = new Properties();
+        try (InputStream in = FrameworkConfig.class.getClassLoader().getResourceAsStream(FILE)) {
+            if (in == null) {
+                throw new IllegalStateException(FILE + " not found on the classpath");
+            }
+            file.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Could not read " + FILE + ": " + e.getMessage(), e);
+        }
+
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> sources = new HashMap<>();
+        for (String key : file.stringPropertyNames()) {
+            values.put(key, file.getProperty(key));
+            sources.put(key, FILE);
+        }
+
+        for (String key : new ArrayList<>(values.keySet())) {
+            String source = externalSource(key);
+            if (source != null) {
+                values.put(key, externalValue(key));
+                sources.put(key, source);
+            }
+        }
+        return new FrameworkConfig(values, sources);
+    }
+
+    // -D wins over the environment; null when neither sets the key
+    private static String externalValue(String key) {
+        String property = System.getProperty(key);
+        return property != null ? property : System.getenv(envName(key));
+    }
+
+    private static String externalSource(String key) {
+        if (System.getProperty(key) != null) return "-D";
+        return System.getenv(envName(key)) != null ? "environment" : null;
+    }
+
+    private static String envName(String key) {
+        return key.toUpperCase().replace('.', '_').replace('-', '_');
+    }
+
+    /**
+     * Get a raw value, or null when the key is not set in any layer
+     */
+    public String get(String key) {
+        String value = values.get(key);
+        if (value != null) return value;
+        return external.computeIfAbsent(key, k -> Optional.ofNullable(externalValue(k))).orElse(null);
+    }
+
+    /**
+     * Get an integer value, or the default when the key is missing
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(describe(key) + " is not a whole number");
+        }
+    }
+
+    /**
+     * Get a count where "auto" means the number of available cores; at least 1
+     */
+    public int getCount(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        if (value.trim().equalsIgnoreCase("auto")) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, getInt(key, defaultValue));
+    }
+
+    /**
+     * Get a boolean value (true or false), or the default when the key is missing
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) return true;
+        if (trimmed.equalsIgnoreCase("false")) return false;
+        throw new IllegalStateException(describe(key) + " must be true or false");
+    }
+
+    /**
+     * Keys set in config.properties or the &lt;test&gt; parameters (environment-only keys are not listed)
+     */
+    public Set<String> keys() {
+        return values.keySet();
+    }
+
+    /**
+     * Describe where a key's value came from, e.g. explicit.wait=abc (from -D)
+     */
+    public String describe(String key) {
+        String source = sources.get(key);
+        if (source == null) source = externalSource(key);
+        return key + "=" + get(key) + " (from " + (source != null ? source : "default") + ")";
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public Duration getImplicitWait() {
+        return implicitWait;
+    }
+
+    public Duration getExplicitWait() {
+        return explicitWait;
+    }
+
+    public boolean isObserverWaits() {
+        return observerWaits;
+    }
+
+    public Duration getWaitPolling() {
+        return waitPolling;
+    }
+
+    public Duration getProbeTimeout() {
+        return probeTimeout;
+    }
+
+    /**
+     * Whether default-timeout waits use per-locator timeouts learned from earlier runs (LocatorTimings)
+     */
+    public boolean isAdaptiveWaits() {
+        return adaptiveWaits;
+    }
+
+    /**
+     * Factor applied to a locator's p99 wait time to get its timeout
+     */
+    public double getAdaptiveMargin() {
+        return adaptiveMargin;
+    }
+
+    /**
+     * Samples a locator needs before its learned timeout replaces explicit.wait
+     */
+    public int getAdaptiveMinSamples() {
+        return adaptiveMinSamples;
+    }
+
+    public Duration getAdaptiveMin() {
+        return adaptiveMin;
+    }
+
+    public Duration getAdaptiveMax() {
+        return adaptiveMax;
+    }
+
+    /**
+     * A wait this many times slower than the locator's p99 is reported as a regression
+     */
+    public double getRegressionFactor() {
+        return regressionFactor;
+    }
+
+    /**
+     * Whether navigations and BasePage.waitUntilReady() wait for the page to settle (PageReadiness)
+     */
+    public boolean isReadinessEnabled() {
+        return readinessEnabled;
+    }
+
+    /**
+     * How long the page must stay quiet (no requests, DOM changes or animation frames) to count as ready
+     */
+    public Duration getReadinessIdle() {
+        return readinessIdle;
+    }
+
+    public Duration getReadinessTimeout() {
+        return readinessTimeout;
+    }
+
+    /**
+     * Whether the page must also go readiness.idle.ms without requesting an animation frame.
+     * Off by default: a page with an endless requestAnimationFrame loop would never be ready.
+     */
+    public boolean isReadinessAnimations() {
+        return readinessAnimations;
+    }
+
+    /**
+     * Report folder without a trailing separator
+     */
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    public boolean isStreamingReport() {
+        return streamingReport;
+    }
+
+    /**
+     * Flush the report after this many finished tests (0 = not by count)
+     */
+    public int getFlushEveryTests() {
+        return flushEveryTests;
+    }
+
+    /**
+     * Flush the report at this interval (0 = not by time)
+     */
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public boolean isPoolEnabled() {
+        return poolEnabled;
+    }
+
+    /**
+     * Most browser sessions alive at once ("auto" = number of cores)
+     */
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * Tests a pooled session runs before it is replaced
+     */
+    public int getPoolMaxUses() {
+        return poolMaxUses;
+    }
+
+    public String getHistoryPath() {
+        return historyPath;
+    }
+
+    /**
+     * Runs of each method kept in the history
+     */
+    public int getHistorySamples() {
+        return historySamples;
+    }
+
+    public boolean isHistoryScheduling() {
+        return historyScheduling;
+    }
+
+    /**
+     * Estimated duration of a method that is not in the history yet
+     */
+    public Duration getHistoryDefault() {
+        return historyDefault;
+    }
+
+    public String getAdaptivePath() {
+        return adaptivePath;
+    }
+
+    /**
+     * Wait timings kept per locator
+     */
+    public int getAdaptiveSamples() {
+        return adaptiveSamples;
+    }
+
+    /**
+     * Whether screenshots are written as JPEG instead of PNG
+     */
+    public boolean isJpegScreenshots() {
+        return jpegScreenshots;
+    }
+
+    /**
+     * Screenshot scale factor, 1 = full size
+     */
+    public double getScreenshotScale() {
+        return screenshotScale;
+    }
+
+    /**
+     * JPEG quality, 1..100
+     */
+    public int getJpegQuality() {
+        return jpegQuality;
+    }
+
+    public int getScreenshotWriterThreads() {
+        return screenshotWriterThreads;
+    }
+
+    public int getScreenshotQueueSize() {
+        return screenshotQueueSize;
+    }
+
+    /**
+     * Whether drivers are instrumented with command latency metrics (CommandMetrics)
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Slowest steps listed per test (0 = none)
+     */
+    public int getMetricsTopSteps() {
+        return metricsTopSteps;
+    }
+
+    public boolean isFixtureServerEnabled() {
+        return fixtureServerEnabled;
+    }
+
+    /**
+     * Port of the fixture server (0 = any free port)
+     */
+    public int getFixtureServerPort() {
+        return fixtureServerPort;
+    }
+
+    /**
+     * Latency added to every fixture server response
+     */
+    public Duration getFixtureLatency() {
+        return fixtureLatency;
+    }
+
+    /**
+     * Whether driver binaries must come from &lt;browser&gt;.driver.path (WebDriverManager is never called)
+     */
+    public boolean isDriverOffline() {
+        return driverOffline;
+    }
+
+    public String getDriverCachePath() {
+        return driverCachePath;
+    }
+
+    /**
+     * Pre-provisioned driver binary of the browser (&lt;browser&gt;.driver.path), or null
+     */
+    public String getDriverPath(String browser) {
+        String path = text(browser.toLowerCase() + ".driver.path", "");
+        return path.isEmpty() ? null : path;
+    }
+
+    /**
+     * Network profile of tests that do not name one (network.profile, "none" = no interception)
+     */
+    public String getNetworkProfile() {
+        return networkProfile;
+    }
+
+    /**
+     * Get a network.&lt;name&gt;.* profile
+     */
+    public NetworkProfile getNetworkProfile(String name) {
+        NetworkProfile profile = networkProfiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown network profile '" + name + "'; known profiles: "
+                    + networkProfiles.keySet());
+        }
+        return profile;
+    }
+
+    // Every network.<name>.* profile in the layered keys, validated
+    private Map<String, NetworkProfile> networkProfiles(List<String> errors) {
+        Set<String> names = new TreeSet<>();
+        for (String key : values.keySet()) {
+            if (key.startsWith("network.") && key.indexOf('.', "network.".length()) > 0) {
+                names.add(key.substring("network.".length(), key.indexOf('.', "network.".length())));
+            }
+        }
+        Map<String, NetworkProfile> profiles = new TreeMap<>();
+        for (String name : names) {
+            String prefix = "network." + name + ".";
+            List<String> block = new ArrayList<>();
+            for (String pattern : text(prefix + "block", "").split(",")) {
+                if (!pattern.trim().isEmpty()) block.add(pattern.trim());
+            }
+            List<NetworkStub> stubs = new ArrayList<>();
+            for (int i = 1; get(prefix + "stub." + i + ".pattern") != null; i++) {
+                String stubPrefix = prefix + "stub." + i + ".";
+                String file = text(stubPrefix + "file", "");
+                if (file.isEmpty()) {
+                    errors.add(stubPrefix + "pattern has no " + stubPrefix + "file");
+                }
+                stubs.add(new NetworkStub(text(stubPrefix + "pattern", ""), file,
+                        text(stubPrefix + "content.type", "application/octet-stream")));
+            }
+            String throttle = oneOf(prefix + "throttle", "none", errors, "none", "fast3g", "slow3g", "offline");
+            profiles.put(name, new NetworkProfile(name, Collections.unmodifiableList(block),
+                    Collections.unmodifiableList(stubs), throttle));
+        }
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    private long number(String key, long defaultValue, long min, List<String> errors) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed >= min) return parsed;
+            errors.add(describe(key) + " must be at least " + min);
+        } catch (NumberFormatException e) {
+            errors.add(describe(key) + " is not a whole number");
+        }
+        return defaultValue;
+    }
+
+    private double decimal(String key, double defaultValue, double min, List<String> errors) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed >= min) return parsed;
+            errors.add(describe(key) + " must be at least " + min);
+        } catch (NumberFormatException e) {
+            errors.add(describe(key) + " is not a number");
+        }
+        return defaultValue;
+    }
+
+    private int count(String key, int defaultValue, List<String> errors) {
+        String value = get(key);
+        if (value != null && value.trim().equalsIgnoreCase("auto")) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return (int) number(key, defaultValue, 1, errors);
+    }
+
+    private String text(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    private String oneOf(String key, String defaultValue, List<String> errors, String... allowed) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        for (String option : allowed) {
+            if (option.equalsIgnoreCase(value.trim())) return option;
+        }
+        errors.add(describe(key) + " must be one of " + String.join(", ", allowed));
+        return defaultValue;
+    }
+
+    /**
+     * NetworkProfile - Settings of one network.&lt;name&gt;.* profile: block list, stubs and throttling
+     */
+    public static final class NetworkProfile {
+        private final String name;
+        private final List<String> block;
+        private final List<NetworkStub> stubs;
+        private final String throttle;
+
+        private NetworkProfile(String name, List<String> block, List<NetworkStub> stubs, String throttle) {
+            this.name = name;
+            this.block = block;
+            this.stubs = stubs;
+            this.throttle = throttle;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * URL globs answered with an empty response
+         */
+        public List<String> getBlock() {
+            return block;
+        }
+
+        public List<NetworkStub> getStubs() {
+            return stubs;
+        }
+
+        /**
+         * none, fast3g, slow3g or offline
+         */
+        public String getThrottle() {
+            return throttle;
+        }
+    }
+
+    /**
+     * NetworkStub - URL glob answered from a file (classpath or file path)
+     */
+    public static final class NetworkStub {
+        private final String pattern;
+        private final String file;
+        private final String contentType;
+
+        private NetworkStub(String pattern, String file, String contentType) {
+            this.pattern = pattern;
+            this.file = file;
+            this.contentType = contentType;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+}
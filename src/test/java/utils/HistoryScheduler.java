@@ -0,0 +1,236 @@
+package utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * HistoryScheduler - Orders test methods longest first, using durations from RunHistory,
+ * so the slowest tests do not start last and leave the other threads idle.
+ * A method is only started after the methods and groups it depends on; among methods that
+ * are ready, the one with the longest remaining chain (itself plus its dependents) goes
+ * first, and the declared priority breaks ties. Logs the estimated and actual makespan
+ * of every &lt;test&gt;.
+ */
+public class HistoryScheduler implements IMethodInterceptor, ITestListener {
+    private static final Log log = Log.get(HistoryScheduler.class);
+    private static final boolean ENABLED = FrameworkConfig.get().isHistoryScheduling();
+    private static final long DEFAULT_MILLIS = FrameworkConfig.get().getHistoryDefault().toMillis();
+    private static final String ESTIMATE = HistoryScheduler.class.getName() + ".estimate";
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ENABLED || methods.size() < 2) return methods;
+
+        Map<IMethodInstance, Long> estimates = estimate(methods);
+        Map<IMethodInstance, List<IMethodInstance>> dependencies = dependencies(methods);
+        Map<IMethodInstance, List<IMethodInstance>> dependents = dependents(methods, dependencies);
+        Map<IMethodInstance, Long> chain = new IdentityHashMap<>();
+        for (IMethodInstance m : methods) {
+            chainMillis(m, estimates, dependents, chain, new HashSet<>());
+        }
+
+        List<IMethodInstance> ordered = order(methods, dependencies, chain);
+        int threads = threads(context);
+        long makespan = simulate(ordered, dependencies, estimates, threads);
+        context.setAttribute(ESTIMATE, makespan);
+        log.info("{}: {} methods ordered longest first, estimated makespan {} ms on {} thread(s)",
+                context.getName(), ordered.size(), makespan, threads);
+        return ordered;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, "FAIL");
+    }
+
+    // Skipped tests are not recorded: they never ran, so their duration says nothing
+
+    @Override
+    public void onFinish(ITestContext context) {
+        long start = Long.MAX_VALUE;
+        long end = 0;
+        List<ITestResult> results = new ArrayList<>();
+        results.addAll(context.getPassedTests().getAllResults());
+        results.addAll(context.getFailedTests().getAllResults());
+        results.addAll(context.getSkippedTests().getAllResults());
+        for (ITestResult result : results) {
+            start = Math.min(start, result.getStartMillis());
+            end = Math.max(end, result.getEndMillis());
+        }
+
+        Map<String, Integer> rows = new HashMap<>();
+        for (ITestResult result : results) {
+            if (result.getMethod().isDataDriven()) {
+                rows.merge(result.getMethod().getQualifiedName(), 1, Integer::sum);
+            }
+        }
+        rows.forEach(RunHistory.getInstance()::recordRows);
+
+        Object estimate = context.getAttribute(ESTIMATE);
+        if (estimate != null && !results.isEmpty()) {
+            log.info("{}: estimated makespan {} ms, actual {} ms", context.getName(), estimate, end - start);
+        }
+        RunHistory.getInstance().save();
+    }
+
+    private static void record(ITestResult result, String outcome) {
+        RunHistory.getInstance().record(result.getMethod().getQualifiedName(),
+                result.getEndMillis() - result.getStartMillis(), outcome);
+    }
+
+    // Known durations from the history; unknown methods get the median of the known ones
+    static Map<IMethodInstance, Long> estimate(List<IMethodInstance> methods) {
+        Map<IMethodInstance, Long> estimates = new IdentityHashMap<>();
+        List<Long> known = new ArrayList<>();
+        for (IMethodInstance m : methods) {
+            long millis = RunHistory.getInstance().estimateMillis(m.getMethod().getQualifiedName());
+            estimates.put(m, millis);
+            if (millis >= 0) known.add(millis);
+        }
+        Collections.sort(known);
+        long unknown = known.isEmpty() ? DEFAULT_MILLIS : known.get(known.size() / 2);
+        estimates.replaceAll((m, millis) -> millis >= 0 ? millis : unknown);
+        return estimates;
+    }
+
+    static Map<IMethodInstance, List<IMethodInstance>> dependencies(List<IMethodInstance> methods) {
+        Map<String, List<IMethodInstance>> byName = new HashMap<>();
+        Map<String, List<IMethodInstance>> byGroup = new HashMap<>();
+        for (IMethodInstance m : methods) {
+            byName.computeIfAbsent(m.getMethod().getQualifiedName(), k -> new ArrayList<>()).add(m);
+            for (String group : m.getMethod().getGroups()) {
+                byGroup.computeIfAbsent(group, k -> new ArrayList<>()).add(m);
+            }
+        }
+
+        Map<IMethodInstance, List<IMethodInstance>> dependencies = new IdentityHashMap<>();
+        for (IMethodInstance m : methods) {
+            List<IMethodInstance> upon = new ArrayList<>();
+            ITestNGMethod method = m.getMethod();
+            for (String name : method.getMethodsDependedUpon()) {
+                upon.addAll(byName.getOrDefault(name, Collections.emptyList()));
+            }
+            for (String group : method.getGroupsDependedUpon()) {
+                upon.addAll(byGroup.getOrDefault(group, Collections.emptyList()));
+            }
+            upon.remove(m);
+            dependencies.put(m, upon);
+        }
+        return dependencies;
+    }
+
+    private static Map<IMethodInstance, List<IMethodInstance>> dependents(List<IMethodInstance> methods,
+            Map<IMethodInstance, List<IMethodInstance>> dependencies) {
+        Map<IMethodInstance, List<IMethodInstance>> dependents = new IdentityHashMap<>();
+        for (IMethodInstance m : methods) {
+            for (IMethodInstance upon : dependencies.get(m)) {
+                dependents.computeIfAbsent(upon, k -> new ArrayList<>()).add(m);
+            }
+        }
+        return dependents;
+    }
+
+    // Duration of the method plus its longest chain of dependents
+    private static long chainMillis(IMethodInstance m, Map<IMethodInstance, Long> estimates,
+            Map<IMethodInstance, List<IMethodInstance>> dependents, Map<IMethodInstance, Long> chain,
+            Set<IMethodInstance> visiting) {
+        Long known = chain.get(m);
+        if (known != null) return known;
+        if (!visiting.add(m)) return 0; // dependency cycle - TestNG reports it
+
+        long longest = 0;
+        for (IMethodInstance next : dependents.getOrDefault(m, Collections.emptyList())) {
+            longest = Math.max(longest, chainMillis(next, estimates, dependents, chain, visiting));
+        }
+        visiting.remove(m);
+        long total = estimates.get(m) + longest;
+        chain.put(m, total);
+        return total;
+    }
+
+    // Repeatedly take the ready method with the longest chain (then lowest priority, then declared order)
+    private static List<IMethodInstance> order(List<IMethodInstance> methods,
+            Map<IMethodInstance, List<IMethodInstance>> dependencies, Map<IMethodInstance, Long> chain) {
+        Map<IMethodInstance, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < methods.size(); i++) position.put(methods.get(i), i);
+
+        List<IMethodInstance> ordered = new ArrayList<>();
+        Set<IMethodInstance> placed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<IMethodInstance> remaining = new ArrayList<>(methods);
+        while (!remaining.isEmpty()) {
+            IMethodInstance best = null;
+            for (IMethodInstance m : remaining) {
+                if (!placed.containsAll(dependencies.get(m))) continue;
+                if (best == null || compare(m, best, chain, position) < 0) best = m;
+            }
+            if (best == null) {
+                // Only a dependency cycle is left; keep the declared order
+                ordered.addAll(remaining);
+                break;
+            }
+            ordered.add(best);
+            placed.add(best);
+            remaining.remove(best);
+        }
+        return ordered;
+    }
+
+    private static int compare(IMethodInstance a, IMethodInstance b, Map<IMethodInstance, Long> chain,
+            Map<IMethodInstance, Integer> position) {
+        int byChain = Long.compare(chain.get(b), chain.get(a));
+        if (byChain != 0) return byChain;
+        int byPriority = Integer.compare(a.getMethod().getPriority(), b.getMethod().getPriority());
+        if (byPriority != 0) return byPriority;
+        return Integer.compare(position.get(a), position.get(b));
+    }
+
+    // Greedy list schedule: each method starts on the first free thread once its dependencies finished
+    private static long simulate(List<IMethodInstance> ordered, Map<IMethodInstance, List<IMethodInstance>> dependencies,
+            Map<IMethodInstance, Long> estimates, int threads) {
+        long[] free = new long[threads];
+        PriorityQueue<Integer> workers = new PriorityQueue<>((x, y) -> Long.compare(free[x], free[y]));
+        for (int i = 0; i < threads; i++) workers.add(i);
+
+        Map<IMethodInstance, Long> finish = new IdentityHashMap<>();
+        long makespan = 0;
+        for (IMethodInstance m : ordered) {
+            int worker = workers.poll();
+            long start = free[worker];
+            for (IMethodInstance upon : dependencies.get(m)) {
+                start = Math.max(start, finish.getOrDefault(upon, 0L));
+            }
+            long end = start + estimates.get(m);
+            finish.put(m, end);
+            free[worker] = end;
+            workers.add(worker);
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
+    }
+
+    private static int threads(ITestContext context) {
+        XmlSuite.ParallelMode parallel = context.getCurrentXmlTest().getParallel();
+        if (parallel == null || !parallel.isParallel()) return 1;
+        return Math.max(1, context.getCurrentXmlTest().getThreadCount());
+    }
+}
@@ -0,0 +1,61 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+/**
+ * JsLocators - Translates By locators into arguments for in-page scripts, plus the
+ * matching find(kind, value) JavaScript function. Used by scripts that do several
+ * element lookups in one round trip.
+ */
+public final class JsLocators {
+
+    /**
+     * JavaScript function find(kind, value) returning the first matching element or null
+     */
+    public static final String FIND_FUNCTION =
+            "function find(kind, value) {\n"
+            + "  switch (kind) {\n"
+            + "    case 'id': return document.getElementById(value);\n"
+            + "    case 'css': return document.querySelector(value);\n"
+            + "    case 'class': return document.getElementsByClassName(value)[0] || null;\n"
+            + "    case 'name': return document.getElementsByName(value)[0] || null;\n"
+            + "    case 'tag': return document.getElementsByTagName(value)[0] || null;\n"
+            + "    case 'xpath': return document.evaluate(value, document, null,"
+            + " XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n"
+            + "  }\n"
+            + "  return null;\n"
+            + "}\n";
+
+    /**
+     * JavaScript function visible(el), close to WebElement.isDisplayed()
+     */
+    public static final String VISIBLE_FUNCTION =
+            "function visible(el) {\n"
+            + "  if (!el) return false;\n"
+            + "  var style = window.getComputedStyle(el);\n"
+            + "  if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') return false;\n"
+            + "  var rect = el.getBoundingClientRect();\n"
+            + "  return rect.width > 0 && rect.height > 0;\n"
+            + "}\n";
+
+    private JsLocators() {}
+
+    /**
+     * Get {kind, value} for find(), or null if the locator type is not supported in scripts
+     */
+    public static String[] toJs(By locator) {
+        String description = locator.toString();
+        int colon = description.indexOf(": ");
+        if (colon < 0) return null;
+        String value = description.substring(colon + 2);
+        switch (description.substring(0, colon)) {
+            case "By.id": return new String[] {"id", value};
+            case "By.cssSelector": return new String[] {"css", value};
+            case "By.className": return new String[] {"class", value};
+            case "By.name": return new String[] {"name", value};
+            case "By.tagName": return new String[] {"tag", value};
+            case "By.xpath": return new String[] {"xpath", value};
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package utils;
+
+/**
+ * LatencyHistogram - Fixed-size log-linear histogram of latencies in microseconds.
+ * Each power of two is split into 16 buckets, so percentiles are within about 6% of the
+ * recorded value. Recording is one array increment; not thread safe.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final long[] buckets = new long[(64 - SUB_BITS) * SUB_COUNT];
+    private long count;
+    private long sumMicros;
+    private long maxMicros;
+
+    /**
+     * Record one latency
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        buckets[index(micros)]++;
+        count++;
+        sumMicros += micros;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumMicros() {
+        return sumMicros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Latency at the percentile (0-100) in microseconds, 0 when nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * Clear all recorded values
+     */
+    public void reset() {
+        java.util.Arrays.fill(buckets, 0);
+        count = 0;
+        sumMicros = 0;
+        maxMicros = 0;
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_COUNT) return (int) micros;
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((micros >>> shift) - SUB_COUNT);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        long lower = (long) (SUB_COUNT + index % SUB_COUNT) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,143 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LaunchProfile - Named browser launch settings read from config.properties
+ * (profile.&lt;name&gt;.&lt;setting&gt;): headless, page.load.strategy (normal/eager/none),
+ * window.size ("maximized" or "width,height"), disable.images, disable.extensions
+ * and disable.dev.shm. A profile with none of these settings is a misspelling and fails fast.
+ * Profiles are built from the configuration of the running test, so &lt;test&gt; parameters can
+ * override profile settings; each configuration snapshot builds a profile once.
+ */
+public final class LaunchProfile {
+    private static final Map<FrameworkConfig, Map<String, LaunchProfile>> profiles = new ConcurrentHashMap<>();
+    private static final List<String> SETTINGS = Arrays.asList("headless", "page.load.strategy", "window.size",
+            "disable.images", "disable.extensions", "disable.dev.shm");
+
+    private final String name;
+    private final boolean headless;
+    private final String pageLoadStrategy;
+    private final int windowWidth;
+    private final int windowHeight;
+    private final boolean disableImages;
+    private final boolean disableExtensions;
+    private final boolean disableDevShm;
+
+    private LaunchProfile(String name, FrameworkConfig config) {
+        String prefix = "profile." + name + ".";
+        if (SETTINGS.stream().allMatch(setting -> config.get(prefix + setting) == null)) {
+            throw new IllegalArgumentException("Unknown launch profile '" + name + "'; known profiles: " + known(config));
+        }
+        this.name = name;
+        this.headless = config.getBoolean(prefix + "headless", false);
+        this.pageLoadStrategy = orDefault(config.get(prefix + "page.load.strategy"), "normal").toLowerCase();
+        this.disableImages = config.getBoolean(prefix + "disable.images", false);
+        this.disableExtensions = config.getBoolean(prefix + "disable.extensions", false);
+        this.disableDevShm = config.getBoolean(prefix + "disable.dev.shm", false);
+
+        String size = orDefault(config.get(prefix + "window.size"), "maximized");
+        if (size.equalsIgnoreCase("maximized")) {
+            this.windowWidth = 0;
+            this.windowHeight = 0;
+        } else {
+            String[] parts = size.split(",");
+            try {
+                this.windowWidth = Integer.parseInt(parts[0].trim());
+                this.windowHeight = Integer.parseInt(parts[1].trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid " + prefix + "window.size: " + size, e);
+            }
+        }
+        if (!pageLoadStrategy.matches("normal|eager|none")) {
+            throw new IllegalArgumentException("Invalid " + prefix + "page.load.strategy: " + pageLoadStrategy);
+        }
+    }
+
+    /**
+     * Get the profile by name in the running test's configuration; blank means the launch.profile default
+     */
+    public static LaunchProfile named(String name) {
+        FrameworkConfig config = FrameworkConfig.current();
+        String profile = name == null || name.trim().isEmpty()
+                ? orDefault(config.get("launch.profile"), "debug")
+                : name.trim();
+        return profiles.computeIfAbsent(config, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(profile.toLowerCase(), n -> new LaunchProfile(n, config));
+    }
+
+    // Profile names with at least one profile.<name>.<setting> key
+    private static TreeSet<String> known(FrameworkConfig config) {
+        TreeSet<String> names = new TreeSet<>();
+        for (String key : config.keys()) {
+            for (String setting : SETTINGS) {
+                if (key.startsWith("profile.") && key.endsWith("." + setting)
+                        && key.length() > "profile.".length() + setting.length() + 1) {
+                    names.add(key.substring("profile.".length(), key.length() - setting.length() - 1));
+                }
+            }
+        }
+        return names;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public String getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Whether the window should be maximized rather than sized
+     */
+    public boolean isMaximized() {
+        return windowWidth == 0;
+    }
+
+    public int getWindowWidth() {
+        return windowWidth;
+    }
+
+    public int getWindowHeight() {
+        return windowHeight;
+    }
+
+    public boolean isDisableImages() {
+        return disableImages;
+    }
+
+    public boolean isDisableExtensions() {
+        return disableExtensions;
+    }
+
+    public boolean isDisableDevShm() {
+        return disableDevShm;
+    }
+
+    /**
+     * Name and settings; sessions are only shared by profiles with the same key
+     */
+    String key() {
+        return name + "[headless=" + headless + ",pageLoad=" + pageLoadStrategy
+                + ",window=" + (isMaximized() ? "maximized" : windowWidth + "x" + windowHeight)
+                + ",images=" + !disableImages + ",extensions=" + !disableExtensions + ",devShm=" + !disableDevShm + "]";
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+}
@@ -0,0 +1,201 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * LocatorTimings - How long each locator took to satisfy its wait condition in recent runs,
+ * kept in a local JSON file (wait.adaptive.path). With wait.adaptive=true, a locator with
+ * enough samples is waited for p99 x wait.adaptive.margin (within wait.adaptive.min.ms and
+ * wait.adaptive.max.seconds) instead of explicit.wait, and polled in proportion to its p50.
+ * Waits that timed out are kept apart as censored samples: they are not part of the p99 and
+ * can only raise the budget up to explicit.wait, so a broken locator or a negative check does
+ * not push every later run to wait.adaptive.max.seconds.
+ */
+public final class LocatorTimings {
+    private static final Log log = Log.get(LocatorTimings.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    // Fast locators jitter by more than any factor of their p99 - ignore slowdowns below this
+    private static final long REGRESSION_SLACK_MS = 500;
+    private static final long MIN_POLLING_MS = 10;
+    private static final Type LIST_OF_LONG = new TypeToken<List<Long>>() {}.getType();
+    private static final LocatorTimings INSTANCE = new LocatorTimings(
+            Paths.get(FrameworkConfig.get().getAdaptivePath()),
+            FrameworkConfig.get().getAdaptiveSamples());
+
+    private final Path file;
+    private final int samples;
+    private final Map<String, Entry> entries;
+
+    private LocatorTimings(Path file, int samples) {
+        this.file = file;
+        this.samples = Math.max(1, samples);
+        this.entries = load(file);
+    }
+
+    public static LocatorTimings getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Timeout and polling interval for a wait, learned from the wait's samples.
+     * Falls back to explicit.wait and wait.polling.ms until it has wait.adaptive.min.samples
+     * successful waits. A recent timeout raises the budget to its duration x margin, at most explicit.wait.
+     */
+    public Budget budget(String wait, FrameworkConfig config) {
+        List<Long> sorted;
+        long longestTimeout;
+        synchronized (this) {
+            Entry entry = entries.get(wait);
+            if (entry == null || entry.times.size() < config.getAdaptiveMinSamples()) {
+                return new Budget(config.getExplicitWait(), config.getWaitPolling(), -1);
+            }
+            sorted = new ArrayList<>(entry.times);
+            longestTimeout = entry.timeouts.isEmpty() ? 0 : Collections.max(entry.timeouts);
+        }
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2);
+        long p99 = sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(sorted.size() * 0.99) - 1));
+
+        long timeout = Math.round(p99 * config.getAdaptiveMargin());
+        timeout = Math.max(config.getAdaptiveMin().toMillis(), Math.min(config.getAdaptiveMax().toMillis(), timeout));
+        // Censored: the locator took at least longestTimeout, but by how much is unknown
+        long stepUp = Math.min(config.getExplicitWait().toMillis(), Math.round(longestTimeout * config.getAdaptiveMargin()));
+        timeout = Math.max(timeout, stepUp);
+        long polling = Math.max(MIN_POLLING_MS, Math.min(config.getWaitPolling().toMillis(), p50 / 4));
+        return new Budget(Duration.ofMillis(timeout), Duration.ofMillis(polling), p99);
+    }
+
+    /**
+     * Record how long a wait took to succeed
+     */
+    public synchronized void record(String wait, long millis) {
+        add(entries.computeIfAbsent(wait, k -> new Entry()).times, millis);
+    }
+
+    /**
+     * Record how long a wait waited before timing out (a censored sample)
+     */
+    public synchronized void recordTimeout(String wait, long millis) {
+        add(entries.computeIfAbsent(wait, k -> new Entry()).timeouts, millis);
+    }
+
+    private void add(List<Long> durations, long millis) {
+        durations.add(millis);
+        while (durations.size() > samples) {
+            durations.remove(0);
+        }
+    }
+
+    /**
+     * Whether a wait that took the given time is much slower than its history
+     */
+    public static boolean isRegression(Budget budget, long millis, FrameworkConfig config) {
+        return budget.isLearned()
+                && millis > budget.getP99Millis() * config.getRegressionFactor()
+                && millis - budget.getP99Millis() >= REGRESSION_SLACK_MS;
+    }
+
+    /**
+     * Write the timings file
+     */
+    public synchronized void save() {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            // Write then move so a parallel JVM never reads a half-written file
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.write(tmp, gson.toJson(entries).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved wait timings of {} locators to {}", entries.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not write locator timings {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Files written before timeouts were kept apart hold a plain list of durations per wait
+    private static Map<String, Entry> load(Path file) {
+        Map<String, Entry> loaded = new TreeMap<>();
+        if (!Files.exists(file)) return loaded;
+        try {
+            JsonElement root = JsonParser.parseString(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            if (!root.isJsonObject()) return loaded;
+            for (Map.Entry<String, JsonElement> wait : root.getAsJsonObject().entrySet()) {
+                Entry entry = new Entry();
+                if (wait.getValue().isJsonArray()) {
+                    entry.times.addAll(gson.fromJson(wait.getValue(), LIST_OF_LONG));
+                } else {
+                    JsonObject value = wait.getValue().getAsJsonObject();
+                    if (value.has("times")) entry.times.addAll(gson.fromJson(value.get("times"), LIST_OF_LONG));
+                    if (value.has("timeouts")) entry.timeouts.addAll(gson.fromJson(value.get("timeouts"), LIST_OF_LONG));
+                }
+                loaded.put(wait.getKey(), entry);
+            }
+            return loaded;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            log.warn("Ignoring unreadable locator timings {}: {}", file, e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    /**
+     * Durations of one wait: successful waits and waits that timed out
+     */
+    private static final class Entry {
+        private final List<Long> times = new ArrayList<>();
+        private final List<Long> timeouts = new ArrayList<>();
+    }
+
+    /**
+     * Timeout and polling interval for one wait
+     */
+    public static final class Budget {
+        private final Duration timeout;
+        private final Duration polling;
+        private final long p99Millis;
+
+        private Budget(Duration timeout, Duration polling, long p99Millis) {
+            this.timeout = timeout;
+            this.polling = polling;
+            this.p99Millis = p99Millis;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public Duration getPolling() {
+            return polling;
+        }
+
+        /**
+         * p99 of the recorded samples, or -1 when the wait has too few samples
+         */
+        public long getP99Millis() {
+            return p99Millis;
+        }
+
+        public boolean isLearned() {
+            return p99Millis >= 0;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Log - Framework logging facade over log4j.
+ * Messages use {} placeholders with fixed-arity overloads, so nothing is formatted or
+ * allocated for disabled levels. Each test thread carries its test id in the log4j
+ * ThreadContext ("testId"), which log4j2.xml uses to route lines to a per-test file.
+ * step() also adds the line to the report of the running test.
+ * All framework classes log through this facade, so lines written on a test thread
+ * (pool, network, screenshots, metrics) land in that test's file.
+ */
+public final class Log {
+    public static final String TEST_ID = "testId";
+
+    private static final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+
+    private final Logger logger;
+
+    private Log(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Get the log for a class
+     */
+    public static Log get(Class<?> type) {
+        return new Log(LogManager.getLogger(type));
+    }
+
+    /**
+     * Tag everything the current thread logs with the test. Repeated invocations of the
+     * same test (data providers, retries) get "#2", "#3", ... appended. Returns the test id.
+     */
+    public static String startTest(String testName) {
+        int invocation = invocations.computeIfAbsent(testName, k -> new AtomicInteger()).incrementAndGet();
+        String testId = invocation == 1 ? testName : testName + "#" + invocation;
+        ThreadContext.put(TEST_ID, testId);
+        return testId;
+    }
+
+    /**
+     * Get the test id of the current thread, or null outside a test
+     */
+    public static String currentTest() {
+        return ThreadContext.get(TEST_ID);
+    }
+
+    /**
+     * Stop tagging the current thread's log lines
+     */
+    public static void endTest() {
+        ThreadContext.remove(TEST_ID);
+    }
+
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    public void debug(String message) {
+        logger.debug(message);
+    }
+
+    public void debug(String message, Object p0) {
+        logger.debug(message, p0);
+    }
+
+    public void debug(String message, Object p0, Object p1) {
+        logger.debug(message, p0, p1);
+    }
+
+    public void debug(String message, Object p0, Object p1, Object p2) {
+        logger.debug(message, p0, p1, p2);
+    }
+
+    public void info(String message) {
+        logger.info(message);
+    }
+
+    public void info(String message, Object p0) {
+        logger.info(message, p0);
+    }
+
+    public void info(String message, Object p0, Object p1) {
+        logger.info(message, p0, p1);
+    }
+
+    public void info(String message, Object p0, Object p1, Object p2) {
+        logger.info(message, p0, p1, p2);
+    }
+
+    public void info(String message, Object p0, Object p1, Object p2, Object p3) {
+        logger.info(message, p0, p1, p2, p3);
+    }
+
+    public void warn(String message) {
+        logger.warn(message);
+    }
+
+    public void warn(String message, Object p0) {
+        logger.warn(message, p0);
+    }
+
+    public void warn(String message, Object p0, Object p1) {
+        logger.warn(message, p0, p1);
+    }
+
+    public void warn(String message, Object p0, Object p1, Object p2) {
+        logger.warn(message, p0, p1, p2);
+    }
+
+    public void error(String message, Throwable t) {
+        logger.error(message, t);
+    }
+
+    public void error(String message, Object p0, Throwable t) {
+        logger.error(message, p0, t);
+    }
+
+    /**
+     * Log at INFO and add the line to the report of the running test
+     */
+    public void step(String message) {
+        logger.info(message);
+        ExtentReportManager.logInfo(message);
+    }
+
+    public void step(String message, Object p0) {
+        logger.info(message, p0);
+        if (ExtentReportManager.isTestStarted()) {
+            ExtentReportManager.logInfo(ParameterizedMessage.format(message, new Object[]{p0}));
+        }
+    }
+
+    public void step(String message, Object p0, Object p1) {
+        logger.info(message, p0, p1);
+        if (ExtentReportManager.isTestStarted()) {
+            ExtentReportManager.logInfo(ParameterizedMessage.format(message, new Object[]{p0, p1}));
+        }
+    }
+
+    public void step(String message, Object p0, Object p1, Object p2) {
+        logger.info(message, p0, p1, p2);
+        if (ExtentReportManager.isTestStarted()) {
+            ExtentReportManager.logInfo(ParameterizedMessage.format(message, new Object[]{p0, p1, p2}));
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * NetworkInterception - Chrome DevTools network control for a browser session.
+ * A network profile (network.&lt;name&gt;.* in config.properties) can block URL patterns,
+ * answer URL patterns with local stub files and throttle the connection. The profile
+ * is chosen per suite or &lt;test&gt; with the "network" parameter. Counts of blocked and
+ * stubbed requests are kept per test. Only Chromium browsers are supported.
+ */
+public final class NetworkInterception {
+    private static final Log log = Log.get(NetworkInterception.class);
+    // Entries are removed by close() when the session is quit (the value holds the driver)
+    private static final Map<WebDriver, NetworkInterception> sessions = Collections.synchronizedMap(new IdentityHashMap<>());
+    // Per configuration snapshot, so <test> parameters can override network.<name>.* settings
+    private static final Map<FrameworkConfig, Map<String, Rules>> profiles = new ConcurrentHashMap<>();
+
+    private final ChromiumDriver driver;
+    private volatile Rules rules = Rules.NONE;
+    private NetworkInterceptor interceptor;
+    private boolean interceptorUnavailable;
+    private boolean browserBlocking;
+    private String throttle = "none";
+
+    private final AtomicLong blockedRequests = new AtomicLong();
+    private final AtomicLong stubbedRequests = new AtomicLong();
+    private final AtomicLong stubbedBytes = new AtomicLong();
+
+    private NetworkInterception(ChromiumDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Register a newly created driver under the instance handed to tests; called by DriverFactory
+     */
+    static void register(WebDriver driver, WebDriver key) {
+        if (driver instanceof ChromiumDriver) {
+            sessions.put(key, new NetworkInterception((ChromiumDriver) driver));
+        }
+    }
+
+    /**
+     * Get the interception of the driver, or null if the browser does not support it
+     */
+    public static NetworkInterception of(WebDriver driver) {
+        return sessions.get(driver);
+    }
+
+    /**
+     * Detach the interceptor and DevTools connection of a driver that is about to quit; called by DriverPool
+     */
+    static void close(WebDriver driver) {
+        NetworkInterception network = sessions.remove(driver);
+        if (network != null) {
+            network.detach();
+        }
+    }
+
+    /**
+     * Drop the DevTools connection and network emulation of the session's tab before DriverPool
+     * replaces the tab; the next apply() sets the profile up again on the new tab
+     */
+    static void resetTab(WebDriver driver) {
+        NetworkInterception network = sessions.get(driver);
+        if (network != null) {
+            network.detach();
+            synchronized (network) {
+                network.rules = Rules.NONE;
+                network.browserBlocking = false;
+                network.throttle = "none";
+            }
+        }
+    }
+
+    /**
+     * Switch the session to the named network profile and reset the counters for a new test.
+     * The DevTools interceptor is only attached once a profile needs it.
+     */
+    public synchronized void apply(String profileName) {
+        FrameworkConfig config = FrameworkConfig.current();
+        Rules next = profileName == null || profileName.trim().isEmpty() || profileName.equalsIgnoreCase("none")
+                ? Rules.NONE
+                : profiles.computeIfAbsent(config, c -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(profileName.trim(), name -> Rules.load(name, config));
+        blockedRequests.set(0);
+        stubbedRequests.set(0);
+        stubbedBytes.set(0);
+        rules = next;
+
+        if (next.intercepts() && interceptor == null && !interceptorUnavailable) {
+            attach();
+        }
+        if (interceptor == null && (!next.block.isEmpty() || browserBlocking)) {
+            // No DevTools event connection - let the browser block (without counts).
+            // An empty list clears the previous test's block list on a pooled session.
+            cdp("Network.enable", Collections.emptyMap());
+            cdp("Network.setBlockedURLs", Collections.singletonMap("urls", next.blockPatterns));
+            browserBlocking = !next.block.isEmpty();
+        }
+        if (!next.throttle.equals(throttle)) {
+            throttle(next.throttle);
+        }
+    }
+
+    /**
+     * One-line summary of this test's blocked and stubbed traffic
+     */
+    public String summary() {
+        return "Network (" + rules.name + "): " + blockedRequests.get() + " requests blocked, "
+                + stubbedRequests.get() + " requests stubbed (" + stubbedBytes.get() + " bytes served locally)";
+    }
+
+    public long getBlockedRequests() {
+        return blockedRequests.get();
+    }
+
+    public long getStubbedRequests() {
+        return stubbedRequests.get();
+    }
+
+    public long getStubbedBytes() {
+        return stubbedBytes.get();
+    }
+
+    private void attach() {
+        try {
+            interceptor = new NetworkInterceptor(driver, (HttpHandler) this::handle);
+        } catch (WebDriverException | IllegalArgumentException e) {
+            interceptorUnavailable = true;
+            log.warn("DevTools interception unavailable for this browser version: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void detach() {
+        if (interceptor == null) return;
+        try {
+            interceptor.close();
+            driver.maybeGetDevTools().ifPresent(DevTools::close);
+        } catch (WebDriverException e) {
+            log.debug("Closing DevTools failed: {}", e.getMessage());
+        }
+        interceptor = null;
+    }
+
+    private HttpResponse handle(HttpRequest request) {
+        Rules current = rules;
+        String url = request.getUri();
+        for (Pattern pattern : current.block) {
+            if (pattern.matcher(url).matches()) {
+                blockedRequests.incrementAndGet();
+                return new HttpResponse().setStatus(204);
+            }
+        }
+        for (Stub stub : current.stubs) {
+            if (stub.pattern.matcher(url).matches()) {
+                stubbedRequests.incrementAndGet();
+                stubbedBytes.addAndGet(stub.body.length);
+                HttpResponse response = new HttpResponse().setStatus(200);
+                response.addHeader("Content-Type", stub.contentType);
+                response.setContent(Contents.bytes(stub.body));
+                return response;
+            }
+        }
+        return NetworkInterceptor.PROCEED_WITH_REQUEST;
+    }
+
+    private void throttle(String profile) {
+        Map<String, Object> conditions = new HashMap<>();
+        switch (profile) {
+            case "offline":
+                conditions.put("offline", true);
+                conditions.put("latency", 0);
+                conditions.put("downloadThroughput", 0);
+                conditions.put("uploadThroughput", 0);
+                break;
+            case "slow3g":
+                conditions.put("offline", false);
+                conditions.put("latency", 400);
+                conditions.put("downloadThroughput", 500 * 1024 / 8);
+                conditions.put("uploadThroughput", 500 * 1024 / 8);
+                break;
+            case "fast3g":
+                conditions.put("offline", false);
+                conditions.put("latency", 150);
+                conditions.put("downloadThroughput", 1600 * 1024 / 8);
+                conditions.put("uploadThroughput", 750 * 1024 / 8);
+                break;
+            default:
+                conditions.put("offline", false);
+                conditions.put("latency", 0);
+                conditions.put("downloadThroughput", -1);
+                conditions.put("uploadThroughput", -1);
+        }
+        cdp("Network.enable", Collections.emptyMap());
+        cdp("Network.emulateNetworkConditions", conditions);
+        throttle = profile;
+    }
+
+    private void cdp(String command, Map<String, Object> params) {
+        try {
+            driver.executeCdpCommand(command, params);
+        } catch (WebDriverException e) {
+            log.warn("CDP command {} failed: {}", command, e.getMessage());
+        }
+    }
+
+    private static Pattern glob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.trim().split("\\*", -1)) {
+            if (regex.length() > 0) regex.append(".*");
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Rules - Block list, stubs and throttling of one network profile
+     */
+    private static final class Rules {
+        static final Rules NONE = new Rules("none", Collections.emptyList(), Collections.emptyList(), "none");
+
+        private final String name;
+        private final List<String> blockPatterns;
+        private final List<Pattern> block = new ArrayList<>();
+        private final List<Stub> stubs;
+        private final String throttle;
+
+        private Rules(String name, List<String> blockPatterns, List<Stub> stubs, String throttle) {
+            this.name = name;
+            this.blockPatterns = blockPatterns;
+            this.stubs = stubs;
+            this.throttle = throttle;
+            for (String pattern : blockPatterns) {
+                block.add(glob(pattern));
+            }
+        }
+
+        boolean intercepts() {
+            return !block.isEmpty() || !stubs.isEmpty();
+        }
+
+        // Settings are validated by FrameworkConfig; only the stub files are read here
+        static Rules load(String name, FrameworkConfig config) {
+            FrameworkConfig.NetworkProfile profile = config.getNetworkProfile(name);
+            List<Stub> stubs = new ArrayList<>();
+            for (FrameworkConfig.NetworkStub stub : profile.getStubs()) {
+                stubs.add(new Stub(glob(stub.getPattern()), readStub(stub.getFile()), stub.getContentType()));
+            }
+            return new Rules(name, profile.getBlock(), Collections.unmodifiableList(stubs), profile.getThrottle());
+        }
+
+        private static byte[] readStub(String file) {
+            try (InputStream in = NetworkInterception.class.getClassLoader().getResourceAsStream(file)) {
+                if (in != null) return in.readAllBytes();
+                return Files.readAllBytes(Paths.get(file));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read network stub " + file, e);
+            }
+        }
+    }
+
+    private static final class Stub {
+        private final Pattern pattern;
+        private final byte[] body;
+        private final String contentType;
+
+        private Stub(Pattern pattern, byte[] body, String contentType) {
+            this.pattern = pattern;
+            this.body = body;
+            this.contentType = contentType;
+        }
+    }
+}
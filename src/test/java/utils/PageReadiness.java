@@ -0,0 +1,158 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageReadiness - Waits until a page has settled, in one async script call: the document is
+ * loaded, no fetch/XHR is pending, the DOM and the network have been quiet for readiness.idle.ms
+ * (with readiness.animations also no animation frame requested in that time) and the page's
+ * marker elements are visible.
+ * The script instruments fetch, XMLHttpRequest and requestAnimationFrame on first use in each
+ * document; requests that were already running by then are seen through resource timing
+ * entries once they finish.
+ */
+public final class PageReadiness {
+    private static final Log log = Log.get(PageReadiness.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String SCRIPT = JsLocators.FIND_FUNCTION + JsLocators.VISIBLE_FUNCTION
+            + "var markers = arguments[0], idleMs = arguments[1], timeout = arguments[2], frames = arguments[3];\n"
+            + "var done = arguments[arguments.length - 1];\n"
+            + "var w = window, r = w.__readiness;\n"
+            + "var origin = performance.timeOrigin || (performance.timing && performance.timing.navigationStart) || 0;\n"
+            + "if (!r) {\n"
+            // A loaded page has been quiet since its load event; otherwise start counting now
+            + "  var nav = performance.getEntriesByType ? performance.getEntriesByType('navigation')[0] : null;\n"
+            + "  var loaded = document.readyState === 'complete' && origin && nav && nav.loadEventEnd;\n"
+            // Frames requested before the script was injected are unknown - assume one was just requested
+            + "  r = w.__readiness = {requests: 0, lastFrame: Date.now(), last: loaded ? origin + nav.loadEventEnd : Date.now()};\n"
+            + "  var touch = function () { r.last = Date.now(); };\n"
+            + "  if (w.fetch) {\n"
+            + "    var fetch = w.fetch;\n"
+            + "    w.fetch = function () {\n"
+            + "      r.requests++; touch();\n"
+            + "      var end = function () { r.requests--; touch(); };\n"
+            + "      var p;\n"
+            + "      try { p = fetch.apply(w, arguments); } catch (e) { end(); throw e; }\n"
+            + "      p.then(end, end);\n"
+            + "      return p;\n"
+            + "    };\n"
+            + "  }\n"
+            + "  if (w.XMLHttpRequest) {\n"
+            + "    var send = XMLHttpRequest.prototype.send;\n"
+            + "    XMLHttpRequest.prototype.send = function () {\n"
+            + "      var ended = false;\n"
+            + "      var end = function () { if (!ended) { ended = true; r.requests--; touch(); } };\n"
+            + "      r.requests++; touch();\n"
+            + "      this.addEventListener('loadend', end);\n"
+            + "      try { return send.apply(this, arguments); } catch (e) { end(); throw e; }\n"
+            + "    };\n"
+            + "  }\n"
+            // A frame queued at the moment of a check says nothing (a running animation always has
+            // one); an animation is over when no frame has been requested for the idle window
+            + "  if (w.requestAnimationFrame) {\n"
+            + "    var raf = w.requestAnimationFrame;\n"
+            + "    w.requestAnimationFrame = function (callback) {\n"
+            + "      r.lastFrame = Date.now();\n"
+            + "      return raf.call(w, callback);\n"
+            + "    };\n"
+            + "  }\n"
+            + "  new MutationObserver(touch).observe(document,"
+            + " {childList: true, subtree: true, attributes: true, characterData: true});\n"
+            + "}\n"
+            + "function lastResource() {\n"
+            + "  if (!origin || !performance.getEntriesByType) return 0;\n"
+            + "  var entries = performance.getEntriesByType('resource'), last = 0;\n"
+            + "  for (var i = 0; i < entries.length; i++) last = Math.max(last, entries[i].responseEnd);\n"
+            + "  return last ? origin + last : 0;\n"
+            + "}\n"
+            + "function missing() {\n"
+            + "  var n = 0;\n"
+            + "  for (var i = 0; i < markers.length; i++) if (!visible(find(markers[i][0], markers[i][1]))) n++;\n"
+            + "  return n;\n"
+            + "}\n"
+            + "var start = Date.now(), ticker;\n"
+            + "function state(ready) {\n"
+            + "  return {ready: ready, readyState: document.readyState, requests: r.requests,"
+            + " missingMarkers: missing(), quietMs: Date.now() - r.last, sinceFrameMs: Date.now() - r.lastFrame};\n"
+            + "}\n"
+            + "function check() {\n"
+            + "  var now = Date.now();\n"
+            + "  r.last = Math.max(r.last, lastResource());\n"
+            + "  var quiet = document.readyState === 'complete' && r.requests <= 0"
+            + " && (!frames || now - r.lastFrame >= idleMs) && now - r.last >= idleMs && missing() === 0;\n"
+            + "  if (quiet || now - start >= timeout) { clearInterval(ticker); done(state(quiet)); return true; }\n"
+            + "  return false;\n"
+            + "}\n"
+            + "if (!check()) ticker = setInterval(check, Math.max(10, Math.min(50, idleMs / 2)));\n";
+
+    private PageReadiness() {}
+
+    /**
+     * Wait until the current page has settled and the markers are visible, at most
+     * readiness.timeout.ms. Returns false when it did not settle in time (or readiness is off);
+     * a page that never goes quiet is not an error - element waits still apply.
+     */
+    public static boolean await(WebDriver driver, List<By> markers) {
+        FrameworkConfig config = FrameworkConfig.current();
+        if (!config.isReadinessEnabled() || !(driver instanceof JavascriptExecutor)) return false;
+        return CommandMetrics.step("pageReady", () -> settle(driver, markers, config));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean settle(WebDriver driver, List<By> markers, FrameworkConfig config) {
+        List<List<String>> jsMarkers = new ArrayList<>();
+        List<By> otherMarkers = new ArrayList<>();
+        for (By marker : markers) {
+            String[] js = JsLocators.toJs(marker);
+            if (js != null) {
+                jsMarkers.add(Arrays.asList(js));
+            } else {
+                otherMarkers.add(marker);
+            }
+        }
+
+        long deadline = System.nanoTime() + config.getReadinessTimeout().toNanos();
+        Map<String, Object> state = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) break;
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, jsMarkers,
+                        config.getReadinessIdle().toMillis(), remainingMillis, config.isReadinessAnimations());
+                if (result instanceof Map) state = (Map<String, Object>) result;
+                break;
+            } catch (UnsupportedCommandException e) {
+                return false;
+            } catch (JavascriptException | ScriptTimeoutException e) {
+                // The page navigated under the script - start over in the new document
+            } catch (WebDriverException e) {
+                log.debug("Readiness check failed: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        boolean ready = state != null && Boolean.TRUE.equals(state.get("ready"));
+        if (!ready) {
+            log.debug("Page not settled within {} ms: {}", config.getReadinessTimeout().toMillis(), state);
+        }
+        // Markers without a JS form share what is left of the readiness deadline (none left = check once)
+        for (By marker : otherMarkers) {
+            Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+            ready &= WebDriverUtils.forDriver(driver).isElementDisplayed(marker, remaining);
+        }
+        return ready;
+    }
+}
@@ -0,0 +1,108 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PageSnapshot - Immutable view of the page taken in one script call: title, URL and the
+ * visibility, text and attributes of a declared set of locators. Reading from it makes no
+ * WebDriver calls, so several assertions cost a single round trip.
+ */
+public final class PageSnapshot {
+    private final String title;
+    private final String url;
+    private final Map<By, ElementState> elements;
+
+    PageSnapshot(String title, String url, Map<By, ElementState> elements) {
+        this.title = title;
+        this.url = url;
+        this.elements = Collections.unmodifiableMap(new LinkedHashMap<>(elements));
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Get the captured state of a locator
+     */
+    public ElementState element(By locator) {
+        ElementState state = elements.get(locator);
+        if (state == null) {
+            throw new IllegalArgumentException("Locator was not part of the snapshot: " + locator);
+        }
+        return state;
+    }
+
+    public boolean isPresent(By locator) {
+        return element(locator).isPresent();
+    }
+
+    public boolean isDisplayed(By locator) {
+        return element(locator).isDisplayed();
+    }
+
+    public String getText(By locator) {
+        return element(locator).getText();
+    }
+
+    public String getAttribute(By locator, String name) {
+        return element(locator).getAttribute(name);
+    }
+
+    @Override
+    public String toString() {
+        return "PageSnapshot{title='" + title + "', url='" + url + "', elements=" + elements + "}";
+    }
+
+    /**
+     * ElementState - State of one locator at snapshot time
+     */
+    public static final class ElementState {
+        private final boolean present;
+        private final boolean displayed;
+        private final String text;
+        private final Map<String, String> attributes;
+
+        ElementState(boolean present, boolean displayed, String text, Map<String, String> attributes) {
+            this.present = present;
+            this.displayed = displayed;
+            this.text = text;
+            this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        /**
+         * Visible text ("" when hidden or absent)
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Attribute (or property) value, null when absent
+         */
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public String toString() {
+            return "{present=" + present + ", displayed=" + displayed + ", text='" + text + "', attributes=" + attributes + "}";
+        }
+    }
+}
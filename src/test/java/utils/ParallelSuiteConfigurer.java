@@ -0,0 +1,26 @@
+package utils;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * ParallelSuiteConfigurer - Sets the suite thread count and the thread count of parallel
+ * data providers from parallel.threads ("auto" = number of available cores).
+ * Overridable with -Dparallel.threads.
+ */
+public class ParallelSuiteConfigurer implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String value = ConfigReader.get("parallel.threads");
+        if (value == null || value.trim().isEmpty()) return;
+
+        int threads = ConfigReader.getCount("parallel.threads", Runtime.getRuntime().availableProcessors());
+        for (XmlSuite suite : suites) {
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(threads);
+        }
+    }
+}
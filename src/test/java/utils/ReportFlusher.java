@@ -0,0 +1,106 @@
+package utils;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReportFlusher - Runs report flushes on a background thread according to a flush policy:
+ * every N finished tests, every N seconds, on request and once more from a shutdown hook.
+ * Requests that arrive while a flush is queued are merged into that flush. The flush action
+ * must exclude concurrent report writes itself (ExtentReportManager flushes under its lock).
+ */
+final class ReportFlusher {
+    private static final Log log = Log.get(ReportFlusher.class);
+
+    private final Runnable flushAction;
+    private final int everyTests;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final AtomicInteger testsSinceFlush = new AtomicInteger();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    ReportFlusher(Runnable flushAction, int everyTests, int intervalSeconds) {
+        this.flushAction = flushAction;
+        this.everyTests = everyTests;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        if (intervalSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::flushIfChanged, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushIfChanged, "report-final-flush"));
+    }
+
+    /**
+     * Count a finished test and queue a flush when the every-N-tests threshold is reached
+     */
+    void testFinished() {
+        int finished = testsSinceFlush.incrementAndGet();
+        if (everyTests > 0 && finished >= everyTests) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Queue a background flush unless one is already queued
+     */
+    void requestFlush() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                queued.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Flush on the background thread and wait for it to finish
+     */
+    void flushNow() {
+        try {
+            executor.submit(this::flush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            // executor already shut down - flush on the caller
+            flush();
+        }
+    }
+
+    long getFlushCount() {
+        return flushCount.get();
+    }
+
+    long getFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(flushNanos.get());
+    }
+
+    private void flushIfChanged() {
+        if (testsSinceFlush.get() > 0) {
+            flush();
+        }
+    }
+
+    private synchronized void flush() {
+        int pending = testsSinceFlush.getAndSet(0);
+        long start = System.nanoTime();
+        try {
+            flushAction.run();
+            flushCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            // Keep the tests pending so the next flush writes them
+            testsSinceFlush.addAndGet(Math.max(pending, 1));
+            log.warn("Report flush failed, will retry: {}", e.toString());
+        } finally {
+            flushNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * ReportMerger - Combines the report folders of several shards into one HTML report.
+ * Each shard folder holds shard-&lt;i&gt;-of-&lt;n&gt;.json (written when -Dshard.total is set),
+ * or shard-&lt;i&gt;-of-&lt;n&gt;.events.jsonl with the streaming backend, and its screenshots/.
+ * The screenshots are copied next to the merged report so the relative image paths keep working.
+ *
+ * <pre>
+ * java -cp ... utils.ReportMerger merged-report/ shard1/test-reports/ shard2/test-reports/
+ * </pre>
+ */
+public final class ReportMerger {
+    private static final Log log = Log.get(ReportMerger.class);
+
+    private ReportMerger() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportMerger <output-dir> <shard-report-dir>...");
+            System.exit(2);
+        }
+        List<Path> shards = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shards.add(Paths.get(args[i]));
+        }
+        for (Path report : merge(Paths.get(args[0]), shards)) {
+            System.out.println("Merged report written to " + report);
+        }
+    }
+
+    /**
+     * Merge the shard report folders into one report in the output folder; returns the HTML files
+     * (one per report backend found in the shards)
+     */
+    public static List<Path> merge(Path outputDir, List<Path> shardDirs) throws IOException {
+        Files.createDirectories(outputDir.resolve("screenshots"));
+
+        List<Path> archives = new ArrayList<>();
+        List<Path> eventLogs = new ArrayList<>();
+        for (Path dir : shardDirs) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "shard-*-of-*.json")) {
+                files.forEach(archives::add);
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "shard-*-of-*.events.jsonl")) {
+                files.forEach(eventLogs::add);
+            }
+            copyScreenshots(dir.resolve("screenshots"), outputDir.resolve("screenshots"));
+        }
+        if (archives.isEmpty() && eventLogs.isEmpty()) {
+            throw new IllegalArgumentException("No shard results (shard-*-of-*.json or .events.jsonl) found in " + shardDirs);
+        }
+        Collections.sort(archives);
+        Collections.sort(eventLogs);
+
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH-mm-ss").format(new Date());
+        List<Path> reports = new ArrayList<>();
+        if (!archives.isEmpty()) {
+            reports.add(mergeArchives(archives, outputDir.resolve("ExtentReport_" + timestamp + "_merged.html")));
+        }
+        if (!eventLogs.isEmpty()) {
+            Path html = outputDir.resolve("Report_" + timestamp + "_merged.html");
+            StreamingReportRenderer.render(eventLogs, html);
+            reports.add(html);
+        }
+        return reports;
+    }
+
+    private static Path mergeArchives(List<Path> archives, Path html) throws IOException {
+        ExtentReports merged = new ExtentReports();
+        for (Path archive : archives) {
+            merged.createDomainFromJsonArchive(archive.toFile());
+            log.info("Merged {}", archive);
+        }
+
+        ExtentSparkReporter reporter = new ExtentSparkReporter(html.toString());
+        reporter.config().setTheme(Theme.DARK);
+        reporter.config().setDocumentTitle("TestNG Selenium Test Report");
+        reporter.config().setReportName("Test Execution Report (" + archives.size() + " shards)");
+        merged.attachReporter(reporter);
+        merged.setSystemInfo("Shards", String.valueOf(archives.size()));
+        merged.flush();
+        return html;
+    }
+
+    private static void copyScreenshots(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(from)) {
+            for (Path file : files) {
+                Files.copy(file, to.resolve(file.getFileName().toString()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * RunHistory - Durations and outcomes of recent runs of each test method, kept in a local
+ * JSON file (history.path). The scheduler estimates a method's duration from the median of
+ * its last history.samples runs.
+ */
+public final class RunHistory {
+    private static final Log log = Log.get(RunHistory.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final RunHistory INSTANCE = new RunHistory(
+            Paths.get(FrameworkConfig.get().getHistoryPath()),
+            FrameworkConfig.get().getHistorySamples());
+
+    private final Path file;
+    private final int samples;
+    private final Map<String, Entry> entries;
+
+    private RunHistory(Path file, int samples) {
+        this.file = file;
+        this.samples = Math.max(1, samples);
+        this.entries = load(file);
+    }
+
+    public static RunHistory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Estimated duration of the method in milliseconds, or -1 if it has never run
+     */
+    public synchronized long estimateMillis(String method) {
+        Entry entry = entries.get(method);
+        if (entry == null || entry.durations.isEmpty()) return -1;
+        List<Long> sorted = new ArrayList<>(entry.durations);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    /**
+     * Record one run of the method
+     */
+    public synchronized void record(String method, long millis, String outcome) {
+        Entry entry = entries.computeIfAbsent(method, k -> new Entry());
+        entry.durations.add(millis);
+        while (entry.durations.size() > samples) {
+            entry.durations.remove(0);
+        }
+        entry.outcomes.add(outcome);
+        while (entry.outcomes.size() > samples) {
+            entry.outcomes.remove(0);
+        }
+    }
+
+    /**
+     * Rows of the data-driven method in its last run, or -1 if it has never run
+     */
+    public synchronized int rows(String method) {
+        Entry entry = entries.get(method);
+        return entry == null || entry.rows == null ? -1 : entry.rows;
+    }
+
+    /**
+     * Record how many rows a data-driven method ran
+     */
+    public synchronized void recordRows(String method, int rows) {
+        entries.computeIfAbsent(method, k -> new Entry()).rows = rows;
+    }
+
+    /**
+     * Write the history file
+     */
+    public synchronized void save() {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            // Write then move so a parallel JVM never reads a half-written file
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.write(tmp, gson.toJson(entries).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write run history {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Entry> load(Path file) {
+        if (!Files.exists(file)) return new TreeMap<>();
+        try {
+            Map<String, Entry> loaded = gson.fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+                    new TypeToken<TreeMap<String, Entry>>() {}.getType());
+            return loaded != null ? loaded : new TreeMap<>();
+        } catch (IOException | JsonParseException e) {
+            log.warn("Ignoring unreadable run history {}: {}", file, e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private static final class Entry {
+        private List<Long> durations = new ArrayList<>();
+        private List<String> outcomes = new ArrayList<>();
+        // Only set for data-driven methods; durations are then per row
+        private Integer rows;
+    }
+}
@@ -5,71 +5,173 @@ import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
 
-import java.io.File;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class ScreenshotUtil {
+    private static final Log log = Log.get(ScreenshotUtil.class);
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    // Encoding and disk writes run here; when the queue is full the test thread writes itself
+    private static final ThreadPoolExecutor writer = createWriter();
+
     private ScreenshotUtil() {}
 
-    // Try to find WebDriver on test instance (field 'driver' or method 'getDriver')
+    /**
+     * Find the driver of the failing test: the current thread's driver first (listeners run
+     * on the test thread), then DriverProvider, then a cached field/getter accessor.
+     */
     public static WebDriver getWebDriverFromInstance(ITestResult result) {
+        WebDriver driver = DriverManager.getDriver();
+        if (driver != null) return driver;
+
         Object instance = result.getInstance();
         if (instance == null) return null;
-
-        Class<?> cls = instance.getClass();
-        while (cls != null) {
-            try {
-                java.lang.reflect.Field f = cls.getDeclaredField("driver");
-                f.setAccessible(true);
-                Object val = f.get(instance);
-                if (val instanceof WebDriver) return (WebDriver) val;
-            } catch (NoSuchFieldException ignored) {
-                // try superclass
-                cls = cls.getSuperclass();
-            } catch (Exception ignored) {
-                break;
-            }
+        if (instance instanceof DriverProvider) {
+            return ((DriverProvider) instance).getDriver();
         }
+        return DriverAccessors.get(instance);
+    }
 
+    // Capture screenshot bytes and queue them for writing; returns the report-relative path
+    // right away (or null if the browser could not take the screenshot)
+    public static String capture(WebDriver driver, String baseName) {
+        if (driver == null) return null;
+        byte[] png;
         try {
-            java.lang.reflect.Method m = instance.getClass().getMethod("getDriver");
-            Object r = m.invoke(instance);
-            if (r instanceof WebDriver) return (WebDriver) r;
-        } catch (Exception ignored) {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            return null;
         }
 
-        return null;
+        String extension = isJpeg() ? "jpg" : "png";
+        String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
+        // Shard prefix keeps names unique when shard reports are merged into one folder
+        String prefix = ShardFilter.isSharded() ? ShardFilter.label() + "_" : "";
+        String fileName = prefix + baseName + "_" + timestamp + "_" + sequence.incrementAndGet() + "." + extension;
+
+        // Prefer saving screenshots inside the report folder so image paths are relative to report HTML
+        Path dest = Paths.get(FrameworkConfig.get().getReportDir()).resolve("screenshots").resolve(fileName);
+        writer.execute(() -> write(png, dest));
+
+        // Return path relative to report file (so the HTML can load it)
+        return "screenshots/" + fileName;
     }
 
-    // Capture screenshot and return the saved path (string) or null on failure
-    public static String capture(WebDriver driver, String baseName) {
-        if (driver == null) return null;
+    /**
+     * Wait until queued screenshots are on disk (call before the final report flush)
+     */
+    public static void awaitPendingWrites(long timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (writer.getActiveCount() > 0 || !writer.getQueue().isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                log.warn("Timed out waiting for {} screenshot writes", writer.getQueue().size() + writer.getActiveCount());
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void write(byte[] png, Path dest) {
         try {
-            // Prefer saving screenshots inside the report folder so image paths are relative to report HTML
-            String reportDir = ConfigReader.get("report.path");
-            if (reportDir == null || reportDir.isEmpty()) reportDir = "test-reports";
-            if (reportDir.endsWith("/") || reportDir.endsWith("\\")) {
-                reportDir = reportDir.substring(0, reportDir.length() - 1);
+            Files.createDirectories(dest.getParent());
+            double scale = scale();
+            if (!isJpeg() && scale >= 1.0) {
+                // Nothing to re-encode - write the browser's PNG as is
+                Files.write(dest, png);
+                return;
             }
 
-            Path destDir = Paths.get(reportDir).resolve("screenshots");
-            Files.createDirectories(destDir);
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (scale < 1.0) {
+                image = downscale(image, scale);
+            }
+            if (isJpeg()) {
+                writeJpeg(toRgb(image), dest);
+            } else {
+                ImageIO.write(image, "png", dest.toFile());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write screenshot {}: {}", dest, e.toString());
+        }
+    }
 
-            String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
-            String fileName = baseName + "_" + timestamp + ".png";
-            File src = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Path dest = destDir.resolve(fileName);
-            Files.copy(src.toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
+    private static BufferedImage downscale(BufferedImage image, double scale) {
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
 
-            // Return path relative to report file (so the HTML can load it)
-            return "screenshots/" + fileName;
-        } catch (Exception e) {
-            return null;
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) return image;
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(image, 0, 0, java.awt.Color.WHITE, null);
+        g.dispose();
+        return rgb;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path dest) throws IOException {
+        ImageWriter jpegWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(FrameworkConfig.current().getJpegQuality() / 100f);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(dest.toFile())) {
+            jpegWriter.setOutput(out);
+            jpegWriter.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            jpegWriter.dispose();
         }
     }
+
+    private static boolean isJpeg() {
+        return FrameworkConfig.current().isJpegScreenshots();
+    }
+
+    private static double scale() {
+        return FrameworkConfig.current().getScreenshotScale();
+    }
+
+
+    private static ThreadPoolExecutor createWriter() {
+        int threads = FrameworkConfig.get().getScreenshotWriterThreads();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(FrameworkConfig.get().getScreenshotQueueSize()),
+                r -> {
+                    Thread t = new Thread(r, "screenshot-writer");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitPendingWrites(30), "screenshot-drain"));
+        return executor;
+    }
 }
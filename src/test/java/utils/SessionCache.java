@@ -0,0 +1,158 @@
+package utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionCache - Logged-in browser state (cookies, localStorage, sessionStorage) per user
+ * and application origin. The first test for a user logs in through the UI and the state
+ * is captured; later tests get it injected instead of repeating the login. A state the
+ * application rejects (the target page redirects away) is dropped and captured again.
+ */
+public final class SessionCache {
+    // A future per key, so a UI login never runs inside the map's locks
+    private static final Map<String, CompletableFuture<SessionState>> cache = new ConcurrentHashMap<>();
+
+    private static final String READ_STORAGE =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; }\n"
+            + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+    private static final String WRITE_STORAGE =
+            "var local = arguments[0], session = arguments[1];\n"
+            + "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });\n"
+            + "Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });";
+
+    /**
+     * Logs a user in through the UI on the given driver
+     */
+    public interface UiLogin {
+        void login(WebDriver driver, String user);
+    }
+
+    private SessionCache() {}
+
+    /**
+     * Bring the driver to the url logged in as the user
+     */
+    public static void startAs(WebDriver driver, String user, String url, UiLogin uiLogin) {
+        String key = user + "@" + origin(url);
+        CompletableFuture<SessionState> saved = cache.get(key);
+        if (saved != null) {
+            SessionState state = await(saved);
+            if (state != null && inject(driver, state, url)) return;
+            cache.remove(key, saved);
+        }
+
+        // One thread per user logs in; the others wait for its state and reuse it
+        while (true) {
+            CompletableFuture<SessionState> mine = new CompletableFuture<>();
+            CompletableFuture<SessionState> other = cache.putIfAbsent(key, mine);
+            if (other == null) {
+                loginAndCapture(driver, user, url, uiLogin, key, mine);
+                return;
+            }
+            SessionState fresh = await(other);
+            if (fresh == null) {
+                // That login failed - try it on this thread
+                cache.remove(key, other);
+                continue;
+            }
+            if (!inject(driver, fresh, url)) {
+                cache.remove(key, other);
+                throw new IllegalStateException("Saved session of " + user + " was rejected by " + url);
+            }
+            return;
+        }
+    }
+
+    private static void loginAndCapture(WebDriver driver, String user, String url, UiLogin uiLogin,
+            String key, CompletableFuture<SessionState> future) {
+        try {
+            uiLogin.login(driver, user);
+            future.complete(capture(driver, url));
+        } catch (RuntimeException | Error e) {
+            cache.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        if (!isAt(driver, url)) driver.navigate().to(url);
+    }
+
+    // The saved state, or null when the login that was to produce it failed
+    private static SessionState await(CompletableFuture<SessionState> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Forget the saved state of the user (for every origin)
+     */
+    public static void invalidate(String user) {
+        cache.keySet().removeIf(key -> key.startsWith(user + "@"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SessionState capture(WebDriver driver, String url) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE);
+        return new SessionState(origin(url) + "/", driver.manage().getCookies(),
+                (Map<String, Object>) storage.get("local"), (Map<String, Object>) storage.get("session"));
+    }
+
+    private static boolean inject(WebDriver driver, SessionState state, String url) {
+        // Cookies and storage can only be set on a page of the same origin
+        String bootstrap = ConfigReader.get("session.bootstrap.path");
+        driver.navigate().to(state.origin + (bootstrap == null ? "" : bootstrap.replaceFirst("^/", "")));
+        for (Cookie cookie : state.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, state.localStorage, state.sessionStorage);
+        driver.navigate().to(url);
+        return isAt(driver, url);
+    }
+
+    private static boolean isAt(WebDriver driver, String url) {
+        URI current = URI.create(driver.getCurrentUrl());
+        URI expected = URI.create(url);
+        return Objects.equals(current.getHost(), expected.getHost())
+                && Objects.equals(normalise(current.getPath()), normalise(expected.getPath()));
+    }
+
+    private static String normalise(String path) {
+        return path == null || path.isEmpty() ? "/" : path;
+    }
+
+    private static String origin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private static final class SessionState {
+        private final String origin;
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> localStorage;
+        private final Map<String, Object> sessionStorage;
+
+        private SessionState(String origin, Set<Cookie> cookies, Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+            this.origin = origin;
+            this.cookies = Collections.unmodifiableSet(cookies);
+            this.localStorage = Collections.unmodifiableMap(new LinkedHashMap<>(localStorage != null ? localStorage : new HashMap<>()));
+            this.sessionStorage = Collections.unmodifiableMap(new LinkedHashMap<>(sessionStorage != null ? sessionStorage : new HashMap<>()));
+        }
+    }
+}
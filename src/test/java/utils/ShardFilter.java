@@ -0,0 +1,143 @@
+package utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardFilter - Runs one shard of the suite when -Dshard.total is above 1.
+ * Every JVM given the same suite, -Dshard.total and its own -Dshard.index (1..total) gets a
+ * disjoint set of methods, and together the shards run every method once. Methods linked
+ * by dependsOnMethods/dependsOnGroups stay on the same shard, and all rows of a data-driven
+ * method run on one shard (TestNG cannot split a data provider); such a method weighs as many
+ * rows as it ran last time (RunHistory), or one before it has run.
+ * The load of each shard carries over from one &lt;test&gt; to the next, so small &lt;test&gt;s do not
+ * all land on shard 1; the &lt;test&gt;s must therefore be intercepted in the same order on every
+ * shard, which holds unless the suite runs parallel="tests".
+ * -Dshard.balance=duration spreads the methods by their RunHistory durations instead of by
+ * count; every shard must then see the same history file, or the partitions differ.
+ * Register it before HistoryScheduler so only this shard's methods are scheduled.
+ */
+public class ShardFilter implements IMethodInterceptor {
+    private static final Log log = Log.get(ShardFilter.class);
+    private static final int TOTAL = Integer.getInteger("shard.total", 1);
+    private static final int INDEX = Integer.getInteger("shard.index", 1);
+    private static final boolean BY_DURATION = "duration".equalsIgnoreCase(System.getProperty("shard.balance"));
+    // Load of each shard so far, per suite
+    private static final Map<String, long[]> loads = new HashMap<>();
+
+    static {
+        if (TOTAL > 1 && (INDEX < 1 || INDEX > TOTAL)) {
+            throw new IllegalArgumentException("shard.index must be between 1 and shard.total (" + TOTAL + "), was " + INDEX);
+        }
+    }
+
+    /**
+     * Whether this JVM runs one shard of the suite
+     */
+    public static boolean isSharded() {
+        return TOTAL > 1;
+    }
+
+    /**
+     * Index of this shard (1..total)
+     */
+    public static int getIndex() {
+        return INDEX;
+    }
+
+    public static int getTotal() {
+        return TOTAL;
+    }
+
+    /**
+     * Short label of this shard for file names, e.g. "shard-2-of-4"
+     */
+    public static String label() {
+        return "shard-" + INDEX + "-of-" + TOTAL;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!isSharded()) return methods;
+
+        if (context.getSuite().getXmlSuite().getParallel() == XmlSuite.ParallelMode.TESTS) {
+            log.warn("{}: parallel=\"tests\" may intercept <test>s in a different order on each shard;"
+                    + " shards can then overlap or miss methods", label());
+        }
+
+        List<Unit> units = units(methods);
+        Map<IMethodInstance, Integer> shardOf = new IdentityHashMap<>();
+        synchronized (loads) {
+            long[] load = loads.computeIfAbsent(context.getSuite().getName(), k -> new long[TOTAL]);
+            for (Unit unit : units) {
+                // Least loaded shard, lowest index on ties - the same answer on every JVM
+                int shard = 0;
+                for (int i = 1; i < TOTAL; i++) {
+                    if (load[i] < load[shard]) shard = i;
+                }
+                load[shard] += unit.weight;
+                for (IMethodInstance m : unit.methods) shardOf.put(m, shard);
+            }
+        }
+
+        List<IMethodInstance> mine = new ArrayList<>();
+        for (IMethodInstance m : methods) {
+            if (shardOf.get(m) == INDEX - 1) mine.add(m);
+        }
+        log.info("{}: {} runs {} of {} methods", context.getName(), label(), mine.size(), methods.size());
+        return mine;
+    }
+
+    // Dependency-connected methods form one unit, ordered by weight then name
+    private static List<Unit> units(List<IMethodInstance> methods) {
+        Map<IMethodInstance, List<IMethodInstance>> dependencies = HistoryScheduler.dependencies(methods);
+        Map<IMethodInstance, Long> estimates = BY_DURATION ? HistoryScheduler.estimate(methods) : null;
+
+        Map<IMethodInstance, IMethodInstance> parent = new IdentityHashMap<>();
+        for (IMethodInstance m : methods) parent.put(m, m);
+        for (IMethodInstance m : methods) {
+            for (IMethodInstance upon : dependencies.get(m)) {
+                parent.put(root(parent, m), root(parent, upon));
+            }
+        }
+
+        Map<IMethodInstance, Unit> byRoot = new IdentityHashMap<>();
+        for (IMethodInstance m : methods) {
+            Unit unit = byRoot.computeIfAbsent(root(parent, m), r -> new Unit());
+            unit.methods.add(m);
+            unit.weight += (estimates != null ? estimates.get(m) : 1) * rows(m);
+            String name = m.getMethod().getQualifiedName();
+            if (unit.name == null || name.compareTo(unit.name) < 0) unit.name = name;
+        }
+
+        List<Unit> units = new ArrayList<>(byRoot.values());
+        units.sort(Comparator.comparingLong((Unit u) -> -u.weight).thenComparing(u -> u.name));
+        return units;
+    }
+
+    // Rows a data-driven method ran last time (its history durations are per row); 1 otherwise
+    private static long rows(IMethodInstance m) {
+        if (!m.getMethod().isDataDriven()) return 1;
+        return Math.max(1, RunHistory.getInstance().rows(m.getMethod().getQualifiedName()));
+    }
+
+    private static IMethodInstance root(Map<IMethodInstance, IMethodInstance> parent, IMethodInstance m) {
+        while (parent.get(m) != m) m = parent.get(m);
+        return m;
+    }
+
+    private static final class Unit {
+        private final List<IMethodInstance> methods = new ArrayList<>();
+        private long weight;
+        private String name;
+    }
+}
@@ -0,0 +1,30 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * StartAs - Start a test already logged in as the user, on the given page.
+ * The login runs through the UI once per user per run; later tests get the saved
+ * cookies and storage injected into their browser (see SessionCache).
+ *
+ * <pre>
+ * &#64;StartAs(user = "standard_user", path = "inventory.html")
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StartAs {
+
+    /**
+     * User name; the password is read from users.&lt;user&gt;.password in config.properties
+     */
+    String user();
+
+    /**
+     * Page to open, relative to app.url
+     */
+    String path() default "";
+}
@@ -0,0 +1,252 @@
+package utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StreamingReportRenderer - Renders the HTML report from one or more EventLog files.
+ * Reads the logs twice: once for the per-test summary (a few fields per test) and once
+ * to copy the log lines into the page, so memory does not grow with the number of log lines.
+ *
+ * <pre>
+ * java -cp ... utils.StreamingReportRenderer report.html test-reports/events_*.jsonl
+ * </pre>
+ */
+public final class StreamingReportRenderer {
+    private static final List<String> SEVERITY = Arrays.asList("INFO", "PASS", "WARNING", "SKIP", "FAIL");
+
+    private StreamingReportRenderer() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: StreamingReportRenderer <report.html> <events.jsonl>...");
+            System.exit(2);
+        }
+        List<Path> logs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            logs.add(Paths.get(args[i]));
+        }
+        render(logs, Paths.get(args[0]));
+        System.out.println("Report written to " + args[0]);
+    }
+
+    /**
+     * The more severe of two statuses (FAIL &gt; SKIP &gt; WARNING &gt; PASS &gt; INFO)
+     */
+    static String worse(String a, String b) {
+        return SEVERITY.indexOf(b) > SEVERITY.indexOf(a) ? b : a;
+    }
+
+    /**
+     * Render the event logs into one HTML report
+     */
+    public static void render(List<Path> logs, Path html) throws IOException {
+        Map<String, Summary> tests = summarize(logs);
+
+        long first = Long.MAX_VALUE;
+        long last = 0;
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String status : Arrays.asList("PASS", "FAIL", "SKIP", "WARNING")) counts.put(status, 0);
+        for (Summary test : tests.values()) {
+            first = Math.min(first, test.start);
+            last = Math.max(last, test.end);
+            counts.merge(test.status, 1, Integer::sum);
+        }
+
+        if (html.toAbsolutePath().getParent() != null) Files.createDirectories(html.toAbsolutePath().getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(html, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>TestNG Selenium Test Report</title>\n");
+            out.write(STYLE);
+            out.write("</head><body>\n<h1>Test Execution Report</h1>\n<p class=\"stats\">");
+            out.write(tests.size() + " tests");
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                out.write(" &middot; <span class=\"" + count.getKey() + "\">" + count.getValue() + " " + count.getKey() + "</span>");
+            }
+            if (!tests.isEmpty()) {
+                out.write(" &middot; started " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(first))
+                        + ", " + (last - first) / 1000 + " s");
+            }
+            out.write("</p>\n<p class=\"filters\"><input id=\"search\" placeholder=\"Filter by name\">");
+            for (String status : counts.keySet()) {
+                out.write(" <label class=\"" + status + "\"><input type=\"checkbox\" class=\"status\" value=\""
+                        + status + "\" checked> " + status + "</label>");
+            }
+            out.write("</p>\n<table id=\"tests\"><tr><th>Test</th><th>Status</th><th>Duration</th><th>Thread</th><th>Logs</th></tr>\n");
+            for (Map.Entry<String, Summary> entry : tests.entrySet()) {
+                Summary test = entry.getValue();
+                out.write("<tr data-test=\"" + entry.getKey() + "\" data-status=\"" + test.status + "\" data-name=\""
+                        + escape(test.name.toLowerCase()) + "\"><td title=\"" + escape(test.description) + "\">"
+                        + escape(test.name) + "</td><td class=\"" + test.status + "\">" + test.status + "</td><td>"
+                        + (test.end > 0 ? (test.end - test.start) + " ms" : "running") + "</td><td>"
+                        + escape(test.thread) + "</td><td>" + test.logs + "</td></tr>\n");
+            }
+            out.write("</table>\n<h2>Log <button onclick=\"show(null)\">all tests</button></h2>\n"
+                    + "<table id=\"log\"><tr><th>Time</th><th>Test</th><th>Status</th><th>Details</th></tr>\n");
+            writeLogRows(logs, tests, out);
+            out.write("</table>\n");
+            out.write(SCRIPT);
+            out.write("</body></html>\n");
+        }
+    }
+
+    // Pass 1: one small summary per test
+    private static Map<String, Summary> summarize(List<Path> logs) throws IOException {
+        Map<String, Summary> tests = new LinkedHashMap<>();
+        for (int file = 0; file < logs.size(); file++) {
+            try (BufferedReader in = Files.newBufferedReader(logs.get(file), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    JsonObject event = parse(line);
+                    if (event == null) continue;
+                    String key = file + "-" + event.get("id").getAsLong();
+                    switch (event.get("e").getAsString()) {
+                        case "start":
+                            tests.put(key, new Summary(string(event, "name"), string(event, "desc"),
+                                    string(event, "thread"), event.get("t").getAsLong()));
+                            break;
+                        case "log": {
+                            Summary test = tests.get(key);
+                            if (test != null) {
+                                test.logs++;
+                                test.status = worse(test.status, string(event, "status"));
+                            }
+                            break;
+                        }
+                        case "end": {
+                            Summary test = tests.get(key);
+                            if (test != null) {
+                                test.end = event.get("t").getAsLong();
+                                test.status = worse(test.status, string(event, "status"));
+                            }
+                            break;
+                        }
+                        default:
+                    }
+                }
+            }
+        }
+        return tests;
+    }
+
+    // Pass 2: copy the log lines in the order they happened
+    private static void writeLogRows(List<Path> logs, Map<String, Summary> tests, Writer out) throws IOException {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        for (int file = 0; file < logs.size(); file++) {
+            try (BufferedReader in = Files.newBufferedReader(logs.get(file), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    JsonObject event = parse(line);
+                    if (event == null || !"log".equals(event.get("e").getAsString())) continue;
+                    String key = file + "-" + event.get("id").getAsLong();
+                    Summary test = tests.get(key);
+                    String status = string(event, "status");
+                    out.write("<tr data-test=\"" + key + "\"><td>" + time.format(new Date(event.get("t").getAsLong()))
+                            + "</td><td>" + escape(test != null ? test.name : "?") + "</td><td class=\"" + status + "\">"
+                            + status + "</td><td>" + escape(string(event, "msg")));
+                    String media = string(event, "media");
+                    if (!media.isEmpty()) {
+                        out.write("<br><a href=\"" + escape(media) + "\"><img src=\"" + escape(media) + "\"></a>");
+                    }
+                    out.write("</td></tr>\n");
+                }
+            }
+        }
+    }
+
+    private static JsonObject parse(String line) {
+        if (line.isEmpty()) return null;
+        try {
+            return JsonParser.parseString(line).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            // a line cut short by a crash - skip it
+            return null;
+        }
+    }
+
+    private static String string(JsonObject event, String name) {
+        return event.has(name) && !event.get(name).isJsonNull() ? event.get(name).getAsString() : "";
+    }
+
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '&': sb.append("&amp;"); break;
+                case '"': sb.append("&quot;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Summary {
+        private final String name;
+        private final String description;
+        private final String thread;
+        private final long start;
+        private long end;
+        private String status = "PASS";
+        private int logs;
+
+        private Summary(String name, String description, String thread, long start) {
+            this.name = name;
+            this.description = description;
+            this.thread = thread;
+            this.start = start;
+        }
+    }
+
+    private static final String STYLE = "<style>\n"
+            + "body { font-family: sans-serif; background: #1e1e1e; color: #ddd; margin: 24px; }\n"
+            + "table { border-collapse: collapse; width: 100%; margin-bottom: 24px; }\n"
+            + "th, td { text-align: left; padding: 4px 8px; border-bottom: 1px solid #333; vertical-align: top; }\n"
+            + "#tests tr[data-test] { cursor: pointer; }\n"
+            + ".PASS { color: #4caf50; } .FAIL { color: #f44336; } .SKIP { color: #ff9800; } .WARNING { color: #ffc107; }\n"
+            + "img { max-width: 480px; margin-top: 4px; }\n"
+            + ".filters input#search { padding: 4px; width: 240px; margin-right: 8px; }\n"
+            + "</style>\n";
+
+    // Filter the tests by name and status; click a test to show only its log lines
+    private static final String SCRIPT = "<script>\n"
+            + "var selected = null;\n"
+            + "function filter() {\n"
+            + "  var query = document.getElementById('search').value.trim().toLowerCase(), statuses = {}, shown = {};\n"
+            + "  document.querySelectorAll('input.status').forEach(function (box) { statuses[box.value] = box.checked; });\n"
+            + "  document.querySelectorAll('#tests tr[data-test]').forEach(function (row) {\n"
+            + "    var match = statuses[row.getAttribute('data-status')] !== false"
+            + " && row.getAttribute('data-name').indexOf(query) >= 0;\n"
+            + "    row.style.display = match ? '' : 'none';\n"
+            + "    shown[row.getAttribute('data-test')] = match;\n"
+            + "  });\n"
+            + "  document.querySelectorAll('#log tr[data-test]').forEach(function (row) {\n"
+            + "    var test = row.getAttribute('data-test');\n"
+            + "    row.style.display = (selected ? test === selected : shown[test] !== false) ? '' : 'none';\n"
+            + "  });\n"
+            + "}\n"
+            + "function show(test) { selected = test; filter(); }\n"
+            + "document.querySelectorAll('#tests tr[data-test]').forEach(function (row) {\n"
+            + "  row.addEventListener('click', function () { show(row.getAttribute('data-test')); });\n"
+            + "});\n"
+            + "document.getElementById('search').addEventListener('input', filter);\n"
+            + "document.querySelectorAll('input.status').forEach(function (box) { box.addEventListener('change', filter); });\n"
+            + "</script>\n";
+}
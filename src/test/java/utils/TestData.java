@@ -0,0 +1,253 @@
+package utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * TestData - Streams rows of a data file in test.data.path for @DataProvider methods.
+ * .csv files have a header row (quoted fields, "" for a quote, # comment lines above the header);
+ * unquoted fields are trimmed, quoted ones are kept as written.
+ * .json files hold an array of objects and are read one object at a time with Gson's JsonReader.
+ * Rows are read as the provider is iterated, so a file is never loaded as a whole, and the
+ * file is closed once the last row has been read.
+ */
+public final class TestData {
+    private TestData() {}
+
+    /**
+     * Rows of the file as {column values...} in the order of the columns.
+     * Missing JSON fields and empty CSV fields are "".
+     */
+    public static Iterator<Object[]> rows(String fileName, String... columns) {
+        String source = resolveName(fileName);
+        BufferedReader reader = open(fileName);
+        return fileName.toLowerCase().endsWith(".json")
+                ? new JsonRows(source, reader, columns)
+                : new CsvRows(source, reader, columns);
+    }
+
+    private static String resolveName(String fileName) {
+        if (Paths.get(fileName).isAbsolute()) return fileName;
+        String dir = ConfigReader.get("test.data.path");
+        return dir == null || dir.trim().isEmpty() ? fileName : Paths.get(dir.trim(), fileName).toString();
+    }
+
+    // test.data.path on disk first, then testdata/ on the classpath
+    private static BufferedReader open(String fileName) {
+        Path path = Paths.get(resolveName(fileName));
+        try {
+            if (Files.isRegularFile(path)) {
+                return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open test data " + path, e);
+        }
+        InputStream in = TestData.class.getClassLoader().getResourceAsStream("testdata/" + fileName);
+        if (in == null) {
+            throw new IllegalArgumentException("Test data " + fileName + " not found in " + path.getParent()
+                    + " or on the classpath (testdata/)");
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads one row ahead and closes the file after the last one
+     */
+    private abstract static class Rows implements Iterator<Object[]> {
+        protected final String source;
+        protected final String[] columns;
+        protected final BufferedReader reader;
+        private Object[] next;
+        private boolean done;
+
+        Rows(String source, BufferedReader reader, String[] columns) {
+            this.source = source;
+            this.reader = reader;
+            this.columns = columns;
+        }
+
+        /**
+         * Read the next row, or null at the end of the file
+         */
+        abstract Object[] read() throws IOException;
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = read();
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException("Could not read test data " + source, e);
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+                if (next == null) close();
+            }
+            return next != null;
+        }
+
+        @Override
+        public synchronized Object[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Object[] row = next;
+            next = null;
+            return row;
+        }
+
+        private void close() {
+            done = true;
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // nothing left to read
+            }
+        }
+    }
+
+    private static final class CsvRows extends Rows {
+        private int[] indexes;
+        private int lineNumber;
+
+        CsvRows(String source, BufferedReader reader, String[] columns) {
+            super(source, reader, columns);
+        }
+
+        @Override
+        Object[] read() throws IOException {
+            List<String> fields = nextRecord();
+            if (fields == null) return null;
+            if (indexes == null) {
+                indexes = new int[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    indexes[i] = fields.indexOf(columns[i]);
+                    if (indexes[i] < 0) {
+                        throw new IllegalStateException(source + ": no column " + columns[i] + " in header " + fields);
+                    }
+                }
+                fields = nextRecord();
+                if (fields == null) return null;
+            }
+            Object[] row = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                row[i] = indexes[i] < fields.size() ? fields.get(indexes[i]) : "";
+            }
+            return row;
+        }
+
+        // Next non-blank line split into fields; # comments only above the header, so data may start with #
+        private List<String> nextRecord() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) return null;
+            } while (line.trim().isEmpty() || (indexes == null && line.startsWith("#")));
+            return split(line);
+        }
+
+        // Quoted fields keep their spaces (only whitespace around the quotes is dropped), unquoted ones are trimmed
+        private List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    if (!wasQuoted && field.toString().trim().isEmpty()) field.setLength(0);
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (!wasQuoted || !Character.isWhitespace(c)) {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalStateException(source + ":" + lineNumber + ": unterminated quote");
+            }
+            fields.add(wasQuoted ? field.toString() : field.toString().trim());
+            return fields;
+        }
+    }
+
+    private static final class JsonRows extends Rows {
+        private final JsonReader json;
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private boolean started;
+
+        JsonRows(String source, BufferedReader reader, String[] columns) {
+            super(source, reader, columns);
+            this.json = new JsonReader(reader);
+            for (int i = 0; i < columns.length; i++) {
+                indexes.put(columns[i], i);
+            }
+        }
+
+        @Override
+        Object[] read() throws IOException {
+            if (!started) {
+                json.beginArray();
+                started = true;
+            }
+            if (!json.hasNext()) {
+                json.endArray();
+                return null;
+            }
+
+            Object[] row = new Object[columns.length];
+            Arrays.fill(row, "");
+            json.beginObject();
+            while (json.hasNext()) {
+                Integer index = indexes.get(json.nextName());
+                if (index == null) {
+                    json.skipValue();
+                    continue;
+                }
+                JsonToken token = json.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                    row[index] = json.nextString();
+                } else if (token == JsonToken.BOOLEAN) {
+                    row[index] = String.valueOf(json.nextBoolean());
+                } else if (token == JsonToken.NULL) {
+                    json.nextNull();
+                } else {
+                    throw new IllegalStateException(source + ": " + columns[index] + " must be a string, number or boolean at "
+                            + json.getPath());
+                }
+            }
+            json.endObject();
+            return row;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package utils;
 
-import com.aventstack.extentreports.MediaEntityBuilder;
-import com.aventstack.extentreports.ExtentTest;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
@@ -11,6 +9,7 @@ import org.testng.ITestResult;
  * Simple TestListener: starts Extent tests and attaches failure screenshots.
  */
 public class TestListener implements ITestListener {
+    private static final Log log = Log.get(TestListener.class);
 
     @Override
     public void onStart(ITestContext context) {
@@ -20,45 +19,71 @@ public class TestListener implements ITestListener {
     @Override
     public void onTestStart(ITestResult result) {
         String testName = result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        if (parameters.length > 0) {
+            // Data-driven rows are told apart by their first column (e.g. the case name)
+            testName += " [" + parameters[0] + "]";
+        }
         String description = result.getMethod().getDescription();
         ExtentReportManager.startTest(testName, description != null ? description : "");
-        ExtentReportManager.logInfo("Test started: " + testName);
+        log.step("Test started: {}", testName);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
+        log.info("Test passed: {}", result.getMethod().getMethodName());
         ExtentReportManager.logPass("Test passed: " + result.getMethod().getMethodName());
+        reportWastedWaits();
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         String methodName = result.getMethod().getMethodName();
-        ExtentTest test = ExtentReportManager.getTest();
+        boolean reported = ExtentReportManager.isTestStarted();
+        log.error("Test failed: {}", methodName, result.getThrowable());
 
         ExtentReportManager.logFail("Test failed: " + methodName);
         ExtentReportManager.logFail("Failure: " + result.getThrowable().getMessage());
 
-        // Simple helper finds driver and captures screenshot
+        // Failure listeners run on the test thread, so this is the failing thread's driver
         WebDriver driver = ScreenshotUtil.getWebDriverFromInstance(result);
-        if (driver != null && test != null) {
+        if (driver != null && reported) {
             String path = ScreenshotUtil.capture(driver, methodName);
             if (path != null) {
-                test.fail("Failure screenshot", MediaEntityBuilder.createScreenCaptureFromPath(path).build());
+                ExtentReportManager.logFailWithScreenshot("Failure screenshot", path);
             } else {
-                test.fail("Could not capture screenshot");
+                ExtentReportManager.logFail("Could not capture screenshot");
             }
-        } else if (test != null) {
-            test.fail("WebDriver instance not available for screenshot");
+        } else if (reported) {
+            ExtentReportManager.logFail("WebDriver instance not available for screenshot");
         }
+        reportWastedWaits();
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
+        log.warn("Test skipped: {}", result.getMethod().getMethodName());
         ExtentReportManager.logSkip("Test skipped: " + result.getMethod().getMethodName());
+        reportWastedWaits();
+    }
+
+    // Log how long the test (including its setUp) waited on conditions that never became true, and waits far slower than usual
+    private void reportWastedWaits() {
+        long wasted = WaitStats.getWastedMillis();
+        if (wasted > 0) {
+            log.warn("Time spent on waits that timed out: {} ms {}", wasted, WaitStats.getWastedByLocator());
+            ExtentReportManager.logWarning("Time spent on waits that timed out: " + wasted + " ms "
+                    + WaitStats.getWastedByLocator());
+        }
+        if (!WaitStats.getSlowWaits().isEmpty()) {
+            log.warn("Waits much slower than their history: {}", WaitStats.getSlowWaits());
+            ExtentReportManager.logWarning("Waits much slower than their history: " + WaitStats.getSlowWaits());
+        }
+        WaitStats.reset();
     }
 
     @Override
     public void onFinish(ITestContext context) {
-        ExtentReportManager.flushReport();
+        ExtentReportManager.requestFlush();
     }
 }
@@ -0,0 +1,67 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * WaitStats - Per-thread record of time spent waiting on conditions that never became true,
+ * and of waits that were much slower than their history (see LocatorTimings).
+ * BaseTest resets it before each test's setUp, so waits of @StartAs logins and start pages
+ * count too; TestListener reports it (and clears it) when the test ends.
+ */
+public final class WaitStats {
+    private static final ThreadLocal<Map<String, Long>> wasted = ThreadLocal.withInitial(LinkedHashMap::new);
+    private static final ThreadLocal<Map<String, String>> slow = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    private WaitStats() {}
+
+    /**
+     * Record a wait on the locator that timed out after the given time
+     */
+    static void recordTimeout(By locator, long millis) {
+        wasted.get().merge(String.valueOf(locator), millis, Long::sum);
+    }
+
+    /**
+     * Record a wait that took (or timed out after) far longer than the p99 of its history
+     */
+    static void recordSlow(String wait, long millis, long p99Millis) {
+        slow.get().put(wait, millis + " ms (p99 " + p99Millis + " ms)");
+    }
+
+    /**
+     * Total wasted wait time of the current thread's test, in milliseconds
+     */
+    public static long getWastedMillis() {
+        long total = 0;
+        for (long millis : wasted.get().values()) {
+            total += millis;
+        }
+        return total;
+    }
+
+    /**
+     * Wasted wait time per locator of the current thread's test
+     */
+    public static Map<String, Long> getWastedByLocator() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(wasted.get()));
+    }
+
+    /**
+     * Waits of the current thread's test that were much slower than their history
+     */
+    public static Map<String, String> getSlowWaits() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(slow.get()));
+    }
+
+    /**
+     * Clear the current thread's record
+     */
+    public static void reset() {
+        wasted.get().clear();
+        slow.get().clear();
+    }
+}
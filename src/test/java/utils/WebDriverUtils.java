@@ -1,88 +1,284 @@
 package utils;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * WebDriverUtils class - Contains common Selenium WebDriver utility methods
  */
 public class WebDriverUtils {
+    private static final Log log = Log.get(WebDriverUtils.class);
     private WebDriver driver;
-    private WebDriverWait wait;
-    private static final int DEFAULT_WAIT_TIME = 10;
+    private DomWaiter domWaiter;
+
+    private static final String SNAPSHOT_SCRIPT = JsLocators.FIND_FUNCTION + JsLocators.VISIBLE_FUNCTION
+            + "var specs = arguments[0], names = arguments[1], elements = [];\n"
+            + "for (var i = 0; i < specs.length; i++) {\n"
+            + "  var el = specs[i] ? find(specs[i][0], specs[i][1]) : null, shown = visible(el), attrs = {};\n"
+            + "  for (var j = 0; j < names.length; j++) {\n"
+            + "    var n = names[j], v = null;\n"
+            + "    if (el) {\n"
+            // properties win over attributes, as in WebElement.getAttribute
+            + "      var p = el[n];\n"
+            + "      v = p !== undefined && p !== null && typeof p !== 'object' && typeof p !== 'function'"
+            + " ? String(p) : el.getAttribute(n);\n"
+            + "    }\n"
+            + "    attrs[n] = v;\n"
+            + "  }\n"
+            + "  elements.push({present: !!el, displayed: shown, text: shown ? el.innerText.trim() : '', attributes: attrs});\n"
+            + "}\n"
+            + "return {title: document.title, url: location.href, elements: elements};\n";
+
+    // One instance per driver, shared by all page objects built on it; dropped by forget() when
+    // the session is quit (a weak map would never release it - the value holds its driver)
+    private static final Map<WebDriver, WebDriverUtils> instances = Collections.synchronizedMap(new IdentityHashMap<>());
 
     public WebDriverUtils(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_WAIT_TIME));
+        this.domWaiter = new DomWaiter(driver);
+    }
+
+    /**
+     * Get the shared utils instance for the driver
+     */
+    public static WebDriverUtils forDriver(WebDriver driver) {
+        return instances.computeIfAbsent(driver, WebDriverUtils::new);
+    }
+
+    /**
+     * Drop the shared utils instance of a driver that is being quit
+     */
+    public static void forget(WebDriver driver) {
+        instances.remove(driver);
     }
 
     /**
      * Wait for element to be visible
      */
     public WebElement waitForElementToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return CommandMetrics.step("waitVisible " + locator,
+                () -> waitForElement(locator, DomWaiter.Condition.VISIBLE));
     }
 
     /**
      * Wait for element to be clickable
      */
     public WebElement waitForElementToBeClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return CommandMetrics.step("waitClickable " + locator,
+                () -> waitForElement(locator, DomWaiter.Condition.CLICKABLE));
     }
 
     /**
      * Click on element
      */
     public void click(By locator) {
-        waitForElementToBeClickable(locator).click();
+        CommandMetrics.step("click " + locator, () -> waitForElementToBeClickable(locator).click());
     }
 
     /**
      * Type text in element
      */
     public void sendKeys(By locator, String text) {
-        waitForElementToBeVisible(locator).sendKeys(text);
+        CommandMetrics.step("sendKeys " + locator, () -> waitForElementToBeVisible(locator).sendKeys(text));
     }
 
     /**
      * Get text from element
      */
     public String getText(By locator) {
-        return waitForElementToBeVisible(locator).getText();
+        return CommandMetrics.step("getText " + locator, () -> waitForElementToBeVisible(locator).getText());
     }
 
     /**
      * Select dropdown by visible text
      */
     public void selectDropdownByVisibleText(By locator, String text) {
-        WebElement element = waitForElementToBeVisible(locator);
-        Select select = new Select(element);
-        select.selectByVisibleText(text);
+        CommandMetrics.step("select " + locator, () -> {
+            WebElement element = waitForElementToBeVisible(locator);
+            Select select = new Select(element);
+            select.selectByVisibleText(text);
+        });
     }
 
     /**
      * Select dropdown by value
      */
     public void selectDropdownByValue(By locator, String value) {
-        WebElement element = waitForElementToBeVisible(locator);
-        Select select = new Select(element);
-        select.selectByValue(value);
+        CommandMetrics.step("select " + locator, () -> {
+            WebElement element = waitForElementToBeVisible(locator);
+            Select select = new Select(element);
+            select.selectByValue(value);
+        });
     }
 
     /**
-     * Check if element is displayed
+     * Check if element is displayed, waiting the full default wait for it to appear.
+     * Use this when the element is expected; for checks that are expected to be false
+     * use isElementDisplayed(locator, timeout), isElementDisplayedNow or isElementAbsent.
      */
     public boolean isElementDisplayed(By locator) {
-        try {
-            return waitForElementToBeVisible(locator).isDisplayed();
-        } catch (Exception e) {
-            return false;
+        return CommandMetrics.step("isDisplayed " + locator, () -> {
+            try {
+                return waitForElement(locator, DomWaiter.Condition.VISIBLE).isDisplayed();
+            } catch (WebDriverException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Check if element becomes visible within the given timeout
+     */
+    public boolean isElementDisplayed(By locator, Duration timeout) {
+        if (timeout.isZero()) {
+            return isElementDisplayedNow(locator);
+        }
+        return CommandMetrics.step("isDisplayed " + locator, () -> {
+            try {
+                return waitForElement(locator, DomWaiter.Condition.VISIBLE, timeout, FrameworkConfig.current().getWaitPolling()).isDisplayed();
+            } catch (WebDriverException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Check if element is displayed right now, without waiting
+     */
+    public boolean isElementDisplayedNow(By locator) {
+        return CommandMetrics.step("isDisplayedNow " + locator, () -> {
+            try {
+                List<WebElement> elements = driver.findElements(locator);
+                return !elements.isEmpty() && elements.get(0).isDisplayed();
+            } catch (WebDriverException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Check if element is in the DOM within the short probe timeout (wait.probe.timeout.ms)
+     */
+    public boolean isElementPresent(By locator) {
+        return CommandMetrics.step("isPresent " + locator, () -> {
+            if (!driver.findElements(locator).isEmpty()) return true;
+            try {
+                FrameworkConfig config = FrameworkConfig.current();
+                waitForElement(locator, DomWaiter.Condition.PRESENT, config.getProbeTimeout(), config.getWaitPolling());
+                return true;
+            } catch (WebDriverException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Check that element is absent or hidden, waiting at most the probe timeout for it to go away.
+     * Returns immediately when the element is not displayed.
+     */
+    public boolean isElementAbsent(By locator) {
+        return isElementAbsent(locator, FrameworkConfig.current().getProbeTimeout());
+    }
+
+    /**
+     * Check that element is absent or hidden, waiting at most the given timeout for it to go away
+     */
+    public boolean isElementAbsent(By locator, Duration timeout) {
+        return CommandMetrics.step("isAbsent " + locator, () -> {
+            if (!isElementDisplayedNow(locator)) return true;
+            try {
+                return waitFor(locator, ExpectedConditions.invisibilityOfElementLocated(locator), timeout,
+                        FrameworkConfig.current().getWaitPolling());
+            } catch (WebDriverException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Capture title, URL and the state of the locators (plus the named attributes of each)
+     * in one script call. Falls back to individual calls when scripts are unavailable.
+     */
+    public PageSnapshot snapshot(List<By> locators, String... attributes) {
+        return CommandMetrics.step("snapshot " + locators.size() + " elements", () -> readSnapshot(locators, attributes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PageSnapshot readSnapshot(List<By> locators, String... attributes) {
+        List<List<String>> specs = new ArrayList<>();
+        for (By locator : locators) {
+            String[] js = JsLocators.toJs(locator);
+            specs.add(js != null ? Arrays.asList(js) : null);
+        }
+
+        Map<String, Object> page = Collections.emptyMap();
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, specs, Arrays.asList(attributes));
+                if (result instanceof Map) page = (Map<String, Object>) result;
+            } catch (WebDriverException e) {
+                log.debug("Snapshot script failed, reading {} elements one by one: {}", locators.size(), e.getMessage());
+            }
+        }
+
+        List<Object> captured = (List<Object>) page.getOrDefault("elements", Collections.emptyList());
+        Map<By, PageSnapshot.ElementState> states = new LinkedHashMap<>();
+        for (int i = 0; i < locators.size(); i++) {
+            By locator = locators.get(i);
+            states.put(locator, specs.get(i) != null && i < captured.size()
+                    ? toState((Map<String, Object>) captured.get(i))
+                    : readState(locator, attributes));
+        }
+        String title = page.containsKey("title") ? String.valueOf(page.get("title")) : driver.getTitle();
+        String url = page.containsKey("url") ? String.valueOf(page.get("url")) : driver.getCurrentUrl();
+        return new PageSnapshot(title, url, states);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PageSnapshot.ElementState toState(Map<String, Object> element) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        ((Map<String, Object>) element.get("attributes")).forEach((k, v) -> attributes.put(k, v == null ? null : String.valueOf(v)));
+        return new PageSnapshot.ElementState(
+                Boolean.TRUE.equals(element.get("present")),
+                Boolean.TRUE.equals(element.get("displayed")),
+                String.valueOf(element.get("text")),
+                attributes);
+    }
+
+    private PageSnapshot.ElementState readState(By locator, String... attributes) {
+        List<WebElement> found = driver.findElements(locator);
+        Map<String, String> values = new LinkedHashMap<>();
+        if (found.isEmpty()) {
+            for (String name : attributes) values.put(name, null);
+            return new PageSnapshot.ElementState(false, false, "", values);
         }
+        WebElement element = found.get(0);
+        for (String name : attributes) values.put(name, element.getAttribute(name));
+        boolean displayed = element.isDisplayed();
+        return new PageSnapshot.ElementState(true, displayed, displayed ? element.getText() : "", values);
+    }
+
+    /**
+     * Start a batch of actions that runs in as few WebDriver calls as possible
+     */
+    public ActionBatch batch() {
+        return new ActionBatch(this);
     }
 
     /**
@@ -91,4 +287,76 @@ public class WebDriverUtils {
     public WebDriver getDriver() {
         return driver;
     }
+
+    // Wait with the default timeout: explicit.wait, or with wait.adaptive the locator's learned budget
+    private WebElement waitForElement(By locator, DomWaiter.Condition condition) {
+        FrameworkConfig config = FrameworkConfig.current();
+        if (!config.isAdaptiveWaits()) {
+            return waitForElement(locator, condition, config.getExplicitWait(), config.getWaitPolling());
+        }
+
+        String wait = condition + " " + locator;
+        LocatorTimings timings = LocatorTimings.getInstance();
+        LocatorTimings.Budget budget = timings.budget(wait, config);
+        long start = System.nanoTime();
+        try {
+            WebElement element = waitForElement(locator, condition, budget.getTimeout(), budget.getPolling());
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            timings.record(wait, millis);
+            if (LocatorTimings.isRegression(budget, millis, config)) {
+                WaitStats.recordSlow(wait, millis, budget.getP99Millis());
+                log.warn("{} took {} ms, p99 of its history is {} ms", wait, millis, budget.getP99Millis());
+            }
+            return element;
+        } catch (TimeoutException e) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            // Censored sample: the locator took at least this long, so the next run may wait longer (up to explicit.wait)
+            timings.recordTimeout(wait, millis);
+            if (budget.isLearned()) {
+                WaitStats.recordSlow(wait, millis, budget.getP99Millis());
+            }
+            throw e;
+        }
+    }
+
+    // Wait in the page when possible, otherwise (or for the time left) poll with ExpectedConditions
+    private WebElement waitForElement(By locator, DomWaiter.Condition condition, Duration timeout, Duration polling) {
+        // "observer" waits with an in-page MutationObserver, "polling" uses ExpectedConditions only
+        if (!FrameworkConfig.current().isObserverWaits() || !domWaiter.supports(locator, timeout)) {
+            return waitFor(locator, expectedCondition(locator, condition), timeout, polling);
+        }
+
+        long start = System.nanoTime();
+        try {
+            WebElement element = domWaiter.await(locator, condition, timeout);
+            if (element != null) return element;
+        } catch (TimeoutException e) {
+            long waited = (System.nanoTime() - start) / 1_000_000;
+            WaitStats.recordTimeout(locator, waited);
+            log.debug("Timed out after {} ms waiting for {} to be {}", waited, locator, condition);
+            throw e;
+        }
+        Duration remaining = timeout.minusNanos(System.nanoTime() - start);
+        return waitFor(locator, expectedCondition(locator, condition), remaining.isNegative() ? Duration.ZERO : remaining, polling);
+    }
+
+    private static ExpectedCondition<WebElement> expectedCondition(By locator, DomWaiter.Condition condition) {
+        switch (condition) {
+            case PRESENT: return ExpectedConditions.presenceOfElementLocated(locator);
+            case CLICKABLE: return ExpectedConditions.elementToBeClickable(locator);
+            default: return ExpectedConditions.visibilityOfElementLocated(locator);
+        }
+    }
+
+    private <T> T waitFor(By locator, ExpectedCondition<T> condition, Duration timeout, Duration polling) {
+        long start = System.nanoTime();
+        try {
+            return new WebDriverWait(driver, timeout, polling).until(condition);
+        } catch (TimeoutException e) {
+            long waited = (System.nanoTime() - start) / 1_000_000;
+            WaitStats.recordTimeout(locator, waited);
+            log.debug("Timed out after {} ms waiting for {}", waited, locator);
+            throw e;
+        }
+    }
 }
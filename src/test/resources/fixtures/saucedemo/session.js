@@ -0,0 +1,21 @@
+// Session handling of the Swag Labs fixture: the "session-username" cookie, like the live site
+var swagSession = {
+    login: function (username) {
+        document.cookie = "session-username=" + encodeURIComponent(username) + "; path=/";
+    },
+    logout: function () {
+        document.cookie = "session-username=; path=/; expires=Thu, 01 Jan 1970 00:00:00 GMT";
+        window.localStorage.removeItem("cart-contents");
+    },
+    user: function () {
+        var match = document.cookie.match(/(?:^|;\s*)session-username=([^;]*)/);
+        return match ? decodeURIComponent(match[1]) : null;
+    },
+    requireLogin: function (page) {
+        if (!this.user()) {
+            window.location.replace("./?error=" + encodeURIComponent(page));
+            return false;
+        }
+        return true;
+    }
+};